@@ -1,5 +1,8 @@
 package com.AutomatedTravelApp.travel;
 
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.springframework.boot.CommandLineRunner;
@@ -7,8 +10,11 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import com.AutomatedTravelApp.travel.model.TravelInterest;
 import com.AutomatedTravelApp.travel.model.User;
 import com.AutomatedTravelApp.travel.model.Role;
+import com.AutomatedTravelApp.travel.repository.CatalogActivityRepository;
 import com.AutomatedTravelApp.travel.repository.UserRepository;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -39,4 +45,37 @@ public class TravelApplication {
                     });
         };
     }
+
+    /** Seeds the local engine's activity catalog with the KNNPacing prototype's Oman activities. */
+    @Bean
+    @Profile("!test")
+    CommandLineRunner seedActivityCatalog(CatalogActivityRepository catalog) {
+        return args -> {
+            if (catalog.existsByDestinationIgnoreCase("Muscat")) return;
+            catalog.saveAll(List.of(
+                    catalogActivity("Sultan Qaboos Grand Mosque", TravelInterest.HISTORY, "09:00", 120, 0, 3),
+                    catalogActivity("Mutrah Corniche Walk", TravelInterest.BEACH, "10:00", 90, 0, 4),
+                    catalogActivity("Nizwa Fort Visit", TravelInterest.HISTORY, "08:30", 180, 5, 5),
+                    catalogActivity("Wadi Shab Hike", TravelInterest.NATURE, "07:00", 300, 10, 8),
+                    catalogActivity("Al Mouj Marina Relax", TravelInterest.RELAXATION, "15:00", 120, 0, 6),
+                    catalogActivity("Royal Opera House Tour", TravelInterest.ENTERTAINMENT, "11:00", 120, 15, 7),
+                    catalogActivity("Beach at Bandar Khayran", TravelInterest.BEACH, "12:00", 180, 5, 7),
+                    catalogActivity("Shopping at Mutrah Souq", TravelInterest.SHOPPING, "14:00", 120, 20, 5),
+                    catalogActivity("Kayaking in Wadi Al Arbeieen", TravelInterest.NATURE, "08:00", 240, 25, 9),
+                    catalogActivity("Cooking Omani Cuisine Class", TravelInterest.FOOD, "10:00", 180, 30, 6)));
+        };
+    }
+
+    private static CatalogActivity catalogActivity(String name, TravelInterest interest, String start,
+                                                   int minutes, double cost, int score) {
+        return CatalogActivity.builder()
+                .destination("Muscat")
+                .name(name)
+                .interest(interest)
+                .startTime(LocalTime.parse(start))
+                .durationMinutes(minutes)
+                .costAmount(BigDecimal.valueOf(cost))
+                .score(score)
+                .build();
+    }
 }
@@ -4,27 +4,276 @@ import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
 import com.AutomatedTravelApp.travel.model.Activity;
 import com.AutomatedTravelApp.travel.model.TravelStyle;
 import com.AutomatedTravelApp.travel.model.Trip;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.types.GenerateContentConfig;
 import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.HttpOptions;
+import com.google.genai.types.Schema;
+import com.google.genai.types.Type;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
 
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-public class AIEngine {
+/**
+ * Spring-managed Gemini client shared by every request.
+ *
+ * The SDK (1.0.0) builds its own Apache HttpClient per Client, with keep-alive
+ * but only two pooled connections per host, so we hold a small fixed pool of
+ * Clients (one per two concurrent calls) and hand them out round-robin.
+ * AiCallScheduler decides when each call may run: it caps in-flight calls at
+ * app.ai.gemini.max-concurrency, keeps us under the Gemini rate limit and
+ * serves interactive callers first.
+ *
+ * Itinerary calls use structured output (ITINERARY_SCHEMA with a JSON MIME
+ * type), so the prompt carries only the trip, and record their prompt and
+ * output token counts in the ai.gemini.tokens summary. Prompt build and the
+ * Gemini call itself are timed through GenerationMetrics, and each call gets
+ * an ai.scheduler.admission and an ai.gemini.call span (with token counts).
+ */
+@Slf4j
+@Primary
+@Component
+public class AIEngine implements AiClient, PromptClient {
 
-    private final Client client;
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    /** Connections the SDK's default Apache pool keeps per host. */
+    private static final int CONNECTIONS_PER_CLIENT = 2;
+
+    private final List<Client> clients;
+    private final AtomicInteger nextClient = new AtomicInteger();
+    private final AiCallScheduler scheduler;
+    private final String model;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
-    /** Stores the last generated JSON from Gemini and can be accessed from other files */
-    public String finalJson;
+    /**
+     * Response schema mirroring AiItineraryJson (minus the ids we never persist).
+     * "days" comes first so streams can emit them before the totals.
+     */
+    static final Schema ITINERARY_SCHEMA = object(Map.of(
+            "days", daysSchema(),
+            "totalCost", number(),
+            "flight", object(Map.of(
+                    "departure", string(),
+                    "arrival", string(),
+                    "cost", number()), List.of("cost")),
+            "hotel", object(Map.of(
+                    "name", string(),
+                    "checkIn", string(),
+                    "checkOut", string(),
+                    "cost", number()), List.of("name", "cost"))),
+            List.of("days", "totalCost", "flight", "hotel"),
+            List.of("days", "flight", "hotel", "totalCost"));
+
+    /** JSON-only output in ITINERARY_SCHEMA's shape. */
+    static final GenerateContentConfig ITINERARY_CONFIG = GenerateContentConfig.builder()
+            .responseMimeType("application/json")
+            .responseSchema(ITINERARY_SCHEMA)
+            .build();
+
+    /** Just the "days" array, for re-planning part of a trip. */
+    static final GenerateContentConfig DAYS_CONFIG = GenerateContentConfig.builder()
+            .responseMimeType("application/json")
+            .responseSchema(object(Map.of("days", daysSchema()), List.of("days")))
+            .build();
 
+    private final GenerationMetrics metrics;
+    private final DistributionSummary inputTokens;
+    private final DistributionSummary outputTokens;
+
+    /** Standalone use (e.g. AIEngineTest): default model, 30 s timeout, 8 concurrent calls. */
     public AIEngine() {
-        this.client = new Client();
+        this("gemini-2.5-flash", 30_000, 8,
+                new AiCallScheduler(new SimpleMeterRegistry(), 8, 1000, 20, 10_000),
+                new GenerationMetrics(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public AIEngine(@Value("${app.ai.gemini.model:gemini-2.5-flash}") String model,
+                    @Value("${app.ai.gemini.timeout-ms:30000}") int timeoutMs,
+                    @Value("${app.ai.gemini.max-concurrency:8}") int maxConcurrency,
+                    AiCallScheduler scheduler,
+                    GenerationMetrics metrics,
+                    MeterRegistry meterRegistry) {
+        this.model = model;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.inputTokens = tokenSummary(meterRegistry, "input");
+        this.outputTokens = tokenSummary(meterRegistry, "output");
+        this.clients = createClients(timeoutMs, Math.max(1, maxConcurrency));
+    }
+
+    private static DistributionSummary tokenSummary(MeterRegistry meterRegistry, String type) {
+        return DistributionSummary.builder("ai.gemini.tokens")
+                .description("Gemini tokens per itinerary request")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static List<Client> createClients(int timeoutMs, int maxConcurrency) {
+        // timeout is the SDK's connect timeout, and is also sent to Gemini as the server-side deadline.
+        HttpOptions httpOptions = HttpOptions.builder().timeout(timeoutMs).build();
+        int size = (maxConcurrency + CONNECTIONS_PER_CLIENT - 1) / CONNECTIONS_PER_CLIENT;
+        List<Client> created = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                created.add(Client.builder().httpOptions(httpOptions).build());
+            }
+        } catch (RuntimeException e) {
+            // Missing GEMINI_API_KEY shouldn't stop the app from starting;
+            // calls fail fast and ItineraryService falls back instead.
+            log.warn("Gemini client not configured, AI generation disabled: {}", e.getMessage());
+            created.forEach(AIEngine::closeQuietly);
+            return List.of();
+        }
+        return List.copyOf(created);
     }
 
+    @Override
+    public String complete(String prompt) {
+        return withClient(client -> client.models.generateContent(model, prompt, null).text());
+    }
+
+    /** Runs one Gemini call on a pooled client once the scheduler admits it. */
+    private <T> T withClient(Function<Client, T> call) {
+        if (clients.isEmpty()) {
+            throw new IllegalStateException("Gemini client is not configured");
+        }
+        AiCallContext context = AiCallContext.current();
+        // A separate span for the scheduler wait, so queueing isn't mistaken for Gemini latency.
+        metrics.observation("ai.scheduler.admission")
+                .lowCardinalityKeyValue("ai.priority", context.priority().name())
+                .observe(() -> scheduler.acquire(context));
+        try {
+            Client client = clients.get(Math.floorMod(nextClient.getAndIncrement(), clients.size()));
+            return metrics.observation("ai.gemini.call")
+                    .lowCardinalityKeyValue("ai.model", model)
+                    .observe(() -> metrics.timer(GenerationMetrics.Stage.GEMINI).record(() -> call.apply(client)));
+        } finally {
+            scheduler.release();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        clients.forEach(AIEngine::closeQuietly);
+    }
+
+    private static void closeQuietly(Client client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            log.debug("Error closing Gemini client: {}", e.getMessage());
+        }
+    }
+
+    @Override
     public String generateItineraryJson(Trip trip, GenerateItineraryResponse responseData) throws Exception {
+        String prompt = metrics.time(GenerationMetrics.Stage.PROMPT, () -> buildItineraryPrompt(trip, responseData));
+
+        GenerateContentResponse response = withClient(client -> {
+            GenerateContentResponse r = client.models.generateContent(model, prompt, ITINERARY_CONFIG);
+            recordUsage(r);
+            return r;
+        });
+        response.checkFinishReason();
+        return finish(response.text());
+    }
+
+    /**
+     * Re-plans only dayNumbers. The prompt holds those days' dates and one short
+     * line per other day, and the schema asks for days only, so both prompt and
+     * output grow with the selection rather than with the trip.
+     */
+    @Override
+    public String generateDaysJson(Trip trip, TravelStyle style, List<Integer> dayNumbers,
+                                   Map<Integer, List<String>> otherDays) throws Exception {
+        String prompt = metrics.time(GenerationMetrics.Stage.PROMPT,
+                () -> buildDaysPrompt(trip, style, dayNumbers, otherDays));
+
+        GenerateContentResponse response = withClient(client -> {
+            GenerateContentResponse r = client.models.generateContent(model, prompt, DAYS_CONFIG);
+            recordUsage(r);
+            return r;
+        });
+        response.checkFinishReason();
+        return finish(response.text());
+    }
+
+    /**
+     * Same prompt as generateItineraryJson, but uses Gemini's streaming API and
+     * hands each text chunk to onChunk as it arrives.
+     */
+    @Override
+    public String streamItineraryJson(Trip trip, GenerateItineraryResponse responseData,
+                                      Consumer<String> onChunk) throws Exception {
+        String prompt = metrics.time(GenerationMetrics.Stage.PROMPT, () -> buildItineraryPrompt(trip, responseData));
+
+        String rawText = withClient(client -> {
+            StringBuilder raw = new StringBuilder();
+            GenerateContentResponse last = null;
+            try (ResponseStream<GenerateContentResponse> stream =
+                         client.models.generateContentStream(model, prompt, ITINERARY_CONFIG)) {
+                for (GenerateContentResponse chunk : stream) {
+                    last = chunk;
+                    String text = chunk.text();
+                    if (text == null || text.isEmpty()) continue;
+                    raw.append(text);
+                    onChunk.accept(text);
+                }
+            }
+            // Usage and the finish reason arrive with the final chunk.
+            if (last != null) {
+                recordUsage(last);
+                last.checkFinishReason();
+            }
+            return raw.toString();
+        });
+        return finish(rawText);
+    }
+
+    /**
+     * Structured output guarantees bare JSON in the schema's shape, so there is
+     * no fence to strip; a truncated or blocked answer already failed
+     * checkFinishReason and never reaches the response cache.
+     */
+    private String finish(String rawText) {
+        if (rawText == null || rawText.isBlank()) {
+            throw new IllegalStateException("Gemini returned an empty itinerary");
+        }
+        return rawText;
+    }
+
+    private void recordUsage(GenerateContentResponse response) {
+        response.usageMetadata().ifPresent(usage -> {
+            usage.promptTokenCount().ifPresent(n -> {
+                inputTokens.record(n);
+                metrics.annotate("ai.tokens.input", n);
+            });
+            usage.candidatesTokenCount().ifPresent(n -> {
+                outputTokens.record(n);
+                metrics.annotate("ai.tokens.output", n);
+            });
+        });
+    }
+
+    String buildItineraryPrompt(Trip trip, GenerateItineraryResponse responseData) {
         String destination = trip.getDestination();
         String startDate = trip.getStartDate().format(DATE_FORMAT);
         String endDate = trip.getEndDate().format(DATE_FORMAT);
@@ -39,127 +288,110 @@ public class AIEngine {
                 .map(Activity::getCostCurrency)
                 .orElse(trip.getBudgetCurrency());
 
-        // Generate a unique itinerary ID if none exists
-        String itineraryId = responseData.getItineraryId() != null
-                ? responseData.getItineraryId().toString()
-                : "ITIN-" + System.currentTimeMillis();
-
         // Travel style now comes as an enum; default to COMFORT if null
         TravelStyle travelStyle = responseData.getTravelStyle() != null
                 ? responseData.getTravelStyle()
                 : TravelStyle.COMFORT;
 
-        // Pacing rules per style
-        String pacingRules;
-        switch (travelStyle) {
-            case LUXURY:
-                pacingRules = "Max 2 activities/day, rest every 2-3 days, total activity duration 4-5 hrs, more budget on hotel & food";
-                break;
-            case BUDGET:
-                pacingRules = "Max 3 activities/day, rest every 4-5 days, total activity duration 6-7 hrs, balanced budget";
-                break;
-            case COMFORT:
-            default:
-                pacingRules = "Balanced plan, 2-3 activities/day, total activity duration 5 hrs";
-        }
+        String pacingRules = PacingRules.of(travelStyle).promptText();
 
         // Pretty string for the prompt (e.g., "Luxury", "Comfort")
         String travelStyleDisplay = capitalize(travelStyle.name().toLowerCase());
 
-        String prompt = """
-                You are a travel planning AI. Generate a complete travel itinerary for a user based on the following information:
-
-                Requirements:
-                1. Output MUST be strictly in the following JSON format:
-                {
-                  "itineraryId": "%s",
-                  "days": [
-                    {
-                      "date": "DD-MM-YYYY",
-                      "activities": [
-                        {
-                          "id": "A1",
-                          "name": "Activity Name",
-                          "start": "HH:MM",
-                          "end": "HH:MM",
-                          "cost": [COST_IN_LOCAL_CURRENCY]
-                        }
-                      ],
-                      "dayCost": [SUM_OF_ACTIVITY_COSTS]
-                    }
-                  ],
-                  "totalCost": [SUM_OF_FLIGHT_HOTEL_AND_DAY_COSTS],
-                  "flight": {
-                    "id": "F1",
-                    "departure": "DD-MM-YYYY HH:MM",
-                    "arrival": "DD-MM-YYYY HH:MM",
-                    "cost": [FLIGHT_COST]
-                  },
-                  "hotel": {
-                    "id": "H1",
-                    "name": "Hotel Name",
-                    "checkIn": "DD-MM-YYYY",
-                    "checkOut": "DD-MM-YYYY",
-                    "cost": [HOTEL_COST]
-                  }
-                }
-
-                2. All monetary amounts must be in %s.
-                3. Generate realistic activity names, start and end times, and approximate costs.
-                4. Include flight and hotel costs. Total cost must equal flight + hotel + all day activities.
-                5. JSON must be valid and parsable. Do not include text outside JSON.
-
-                Inputs:
-                Origin: Origin
+        // The JSON shape comes from ITINERARY_SCHEMA; the prompt only carries the trip.
+        return """
+                Plan a travel itinerary.
                 Destination: %s
-                Start Date: %s
-                End Date: %s
-                Budget: %.2f
+                Dates: %s to %s, one entry in "days" per date (dates DD-MM-YYYY, times HH:MM)
+                Budget: %.2f %s in total; all costs in %s
+                Travel style: %s. Pacing: %s
                 Preferences: %s
-                Travel Style: %s
-                Pacing Rules: %s
+                Use realistic activities, times and costs. dayCost is the sum of the day's activities; \
+                totalCost is flight + hotel + all dayCosts.
                 """.formatted(
-                itineraryId,
-                currency,
                 destination,
                 startDate,
                 endDate,
                 budget,
-                preferences,
+                currency,
+                currency,
                 travelStyleDisplay,
-                pacingRules
+                pacingRules,
+                preferences
         );
+    }
+
+    String buildDaysPrompt(Trip trip, TravelStyle style, List<Integer> dayNumbers,
+                           Map<Integer, List<String>> otherDays) {
+        TravelStyle travelStyle = style != null ? style : TravelStyle.COMFORT;
+        String dates = dayNumbers.stream()
+                .map(n -> trip.getStartDate().plusDays(n - 1).format(DATE_FORMAT))
+                .collect(Collectors.joining(", "));
+        String planned = otherDays.isEmpty() ? "(none)" : otherDays.entrySet().stream()
+                .map(e -> "Day " + e.getKey() + ": " + (e.getValue().isEmpty() ? "rest" : String.join("; ", e.getValue())))
+                .collect(Collectors.joining("\n"));
+        String preferences = Optional.ofNullable(trip.getUser())
+                .map(u -> u.getPreferences())
+                .orElse("");
 
-        // Call Gemini AI to generate content
-        GenerateContentResponse response = client.models.generateContent(
-                "gemini-2.5-flash",
-                prompt,
-                null
+        return """
+                Re-plan %d day(s) of a %d-day trip to %s.
+                Dates: %s; one entry in "days" per date, in this order (dates DD-MM-YYYY, times HH:MM)
+                Trip budget: %.2f %s in total; all costs in %s
+                Travel style: %s. Pacing: %s
+                Preferences: %s
+                Already planned, don't repeat:
+                %s
+                Use realistic activities, times and costs. dayCost is the sum of the day's activities.
+                """.formatted(
+                dayNumbers.size(),
+                ChronoUnit.DAYS.between(trip.getStartDate(), trip.getEndDate()) + 1,
+                trip.getDestination(),
+                dates,
+                trip.getBudgetAmount().doubleValue(),
+                trip.getBudgetCurrency(),
+                trip.getBudgetCurrency(),
+                capitalize(travelStyle.name().toLowerCase()),
+                PacingRules.of(travelStyle).promptText(),
+                preferences,
+                planned
         );
+    }
 
-        String rawText = response.text();
-        finalJson = cleanJson(rawText); // store in class-level variable so it can be accessed externally
+    private static String capitalize(String s) {
+        if (s == null || s.isEmpty()) return s;
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
 
-        // Validate JSON
-        objectMapper.readTree(finalJson);
+    private static Schema daysSchema() {
+        return array(object(Map.of(
+                "date", string(),
+                "activities", array(object(Map.of(
+                        "name", string(),
+                        "start", string(),
+                        "end", string(),
+                        "cost", number()), List.of("name", "start", "end", "cost"))),
+                "dayCost", number()), List.of("date", "activities", "dayCost")));
+    }
 
-        return finalJson;
+    private static Schema object(Map<String, Schema> properties, List<String> required) {
+        return Schema.builder().type(Type.Known.OBJECT).properties(properties).required(required).build();
     }
 
-    private static String cleanJson(String raw) {
-        if (raw == null) return "{}";
-        String cleaned = raw.trim();
-        if (cleaned.startsWith("```")) {
-            cleaned = cleaned.replaceAll("(?s)```(json)?", "").trim();
-        }
-        if (cleaned.endsWith("```")) {
-            cleaned = cleaned.substring(0, cleaned.length() - 3).trim();
-        }
-        return cleaned;
+    private static Schema object(Map<String, Schema> properties, List<String> required, List<String> ordering) {
+        return Schema.builder().type(Type.Known.OBJECT).properties(properties).required(required)
+                .propertyOrdering(ordering).build();
     }
 
-    private static String capitalize(String s) {
-        if (s == null || s.isEmpty()) return s;
-        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    private static Schema array(Schema items) {
+        return Schema.builder().type(Type.Known.ARRAY).items(items).build();
+    }
+
+    private static Schema string() {
+        return Schema.builder().type(Type.Known.STRING).build();
+    }
+
+    private static Schema number() {
+        return Schema.builder().type(Type.Known.NUMBER).build();
     }
 }
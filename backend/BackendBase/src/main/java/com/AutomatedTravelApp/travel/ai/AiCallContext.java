@@ -0,0 +1,72 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Who an AI call is made for and how urgent it is, as seen by AiCallScheduler.
+ *
+ * Carried in a thread local: code that starts background AI work sets it with
+ * callAs, and the AI executors copy it onto their worker threads (see wrap).
+ * Without one, a call counts as INTERACTIVE for the authenticated user.
+ */
+public record AiCallContext(Priority priority, String user) {
+
+    /** Scheduling classes, most urgent first. */
+    public enum Priority { INTERACTIVE, BATCH, PREFETCH }
+
+    private static final String ANONYMOUS = "anonymous";
+    private static final ThreadLocal<AiCallContext> CURRENT = new ThreadLocal<>();
+
+    public static AiCallContext current() {
+        AiCallContext context = CURRENT.get();
+        return context != null ? context : new AiCallContext(Priority.INTERACTIVE, currentUser());
+    }
+
+    public AiCallContext withPriority(Priority priority) {
+        return new AiCallContext(priority, user);
+    }
+
+    /** Runs the call with this context in place, restoring the previous one afterwards. */
+    public <T> T call(Callable<T> call) throws Exception {
+        AiCallContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /** Captures the caller's context so the task sees it on whichever thread runs it. */
+    public static Runnable wrap(Runnable task) {
+        AiCallContext captured = current();
+        return () -> {
+            AiCallContext previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(AiCallContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private static String currentUser() {
+        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .orElse(ANONYMOUS);
+    }
+}
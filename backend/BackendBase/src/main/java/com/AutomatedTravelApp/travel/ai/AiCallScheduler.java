@@ -0,0 +1,190 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for Gemini calls. A call runs only once it holds one of
+ * app.ai.gemini.max-concurrency slots and a token from a bucket sized to our
+ * Gemini rate limit (app.ai.gemini.rate-per-minute, burst app.ai.gemini.rate-burst).
+ *
+ * When calls have to wait, the next one admitted comes from the most urgent
+ * priority class with anyone waiting (INTERACTIVE, then BATCH, then PREFETCH),
+ * and within a class users take turns, so one user's burst queues behind
+ * everyone else's next call instead of in front of it. A call still waiting
+ * after app.ai.gemini.acquire-timeout-ms fails with IllegalStateException.
+ *
+ * Metrics: ai.scheduler.queue.depth and ai.scheduler.wait (per priority),
+ * ai.scheduler.in.flight and ai.scheduler.rejected.
+ */
+@Component
+public class AiCallScheduler {
+
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final TokenBucket rateLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<AiCallContext.Priority, FairQueue> queues = new EnumMap<>(AiCallContext.Priority.class);
+    private final Map<AiCallContext.Priority, Timer> waitTimers = new EnumMap<>(AiCallContext.Priority.class);
+    private final Counter rejected;
+    private int inFlight;
+
+    public AiCallScheduler(MeterRegistry meterRegistry,
+                           @Value("${app.ai.gemini.max-concurrency:8}") int maxConcurrency,
+                           @Value("${app.ai.gemini.rate-per-minute:1000}") double ratePerMinute,
+                           @Value("${app.ai.gemini.rate-burst:20}") int burst,
+                           @Value("${app.ai.gemini.acquire-timeout-ms:10000}") long acquireTimeoutMs) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        this.rateLimit = new TokenBucket(ratePerMinute, burst);
+        for (AiCallContext.Priority priority : AiCallContext.Priority.values()) {
+            FairQueue queue = new FairQueue();
+            queues.put(priority, queue);
+            Gauge.builder("ai.scheduler.queue.depth", () -> depth(queue))
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("ai.scheduler.wait")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("ai.scheduler.in.flight", this, s -> s.inFlight()).register(meterRegistry);
+        this.rejected = meterRegistry.counter("ai.scheduler.rejected");
+    }
+
+    /**
+     * Blocks until a call for this context may start. Every successful acquire
+     * must be paired with a release once the call is over.
+     */
+    public void acquire(AiCallContext context) {
+        Waiter me = new Waiter(context.user());
+        FairQueue queue = queues.get(context.priority());
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeoutNanos;
+        lock.lock();
+        try {
+            queue.add(me);
+            while (true) {
+                long wait = deadline - System.nanoTime();
+                if (inFlight < maxConcurrency && next() == me) {
+                    long tokenWait = rateLimit.nanosToNextToken();
+                    if (tokenWait == 0 && rateLimit.tryAcquire()) {
+                        queue.remove(me, true);
+                        inFlight++;
+                        changed.signalAll();
+                        waitTimers.get(context.priority()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                    wait = Math.min(wait, Math.max(tokenWait, TimeUnit.MILLISECONDS.toNanos(1)));
+                }
+                if (deadline - System.nanoTime() <= 0) {
+                    queue.remove(me, false);
+                    changed.signalAll();
+                    rejected.increment();
+                    throw new IllegalStateException("Timed out waiting for a free Gemini slot");
+                }
+                changed.awaitNanos(wait);
+            }
+        } catch (InterruptedException e) {
+            queue.remove(me, false);
+            changed.signalAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a free Gemini slot", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int depth(FairQueue queue) {
+        lock.lock();
+        try {
+            return queue.size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The waiter that should be admitted next; callers hold the lock. */
+    private Waiter next() {
+        for (FairQueue queue : queues.values()) {
+            Waiter head = queue.peek();
+            if (head != null) return head;
+        }
+        return null;
+    }
+
+    private static final class Waiter {
+        final String user;
+
+        Waiter(String user) {
+            this.user = user;
+        }
+    }
+
+    /**
+     * Per-user FIFO queues served round-robin: after a user's call is admitted,
+     * that user goes to the back of the rotation. Guarded by the scheduler lock.
+     */
+    private static final class FairQueue {
+        final Map<String, ArrayDeque<Waiter>> byUser = new HashMap<>();
+        final ArrayDeque<String> rotation = new ArrayDeque<>();
+        int size;
+
+        void add(Waiter waiter) {
+            byUser.computeIfAbsent(waiter.user, u -> {
+                rotation.addLast(u);
+                return new ArrayDeque<>();
+            }).addLast(waiter);
+            size++;
+        }
+
+        Waiter peek() {
+            String user = rotation.peekFirst();
+            return user == null ? null : byUser.get(user).peekFirst();
+        }
+
+        /** Removes the waiter; an admitted one also ends its user's turn. */
+        void remove(Waiter waiter, boolean admitted) {
+            ArrayDeque<Waiter> waiting = byUser.get(waiter.user);
+            if (waiting == null || !waiting.remove(waiter)) return;
+            size--;
+            if (waiting.isEmpty()) {
+                byUser.remove(waiter.user);
+                rotation.remove(waiter.user);
+            } else if (admitted && waiter.user.equals(rotation.peekFirst())) {
+                rotation.addLast(rotation.pollFirst());
+            }
+        }
+    }
+}
@@ -1,5 +1,35 @@
 package com.AutomatedTravelApp.travel.ai;
 
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/** Itinerary planning, answered by Gemini (AIEngine) or the in-process LocalItineraryEngine. */
 public interface AiClient {
-    String complete(String prompt);
+
+    /** Returns itinerary JSON in the shape of AiItineraryJson for the given trip. */
+    String generateItineraryJson(Trip trip, GenerateItineraryResponse responseData) throws Exception;
+
+    /**
+     * Like generateItineraryJson, passing raw text chunks to onChunk as they are
+     * produced. Clients without a streaming API emit the whole JSON as one chunk.
+     */
+    default String streamItineraryJson(Trip trip, GenerateItineraryResponse responseData,
+                                       Consumer<String> onChunk) throws Exception {
+        String json = generateItineraryJson(trip, responseData);
+        onChunk.accept(json);
+        return json;
+    }
+
+    /**
+     * Returns JSON whose "days" re-plan only the given day numbers, one entry per
+     * day in the same order. otherDays maps every other day number to its current
+     * activity names, so the new days don't repeat them.
+     */
+    String generateDaysJson(Trip trip, TravelStyle style, List<Integer> dayNumbers,
+                            Map<Integer, List<String>> otherDays) throws Exception;
 }
@@ -7,7 +7,7 @@ import java.util.List;
 
 /**
  * Mirrors the JSON shape AIEngine's prompt instructs Gemini to return.
- * Used only to parse AIEngine.finalJson into something we can persist.
+ * Used only to parse the JSON returned by AiClient.generateItineraryJson into something we can persist.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class AiItineraryJson {
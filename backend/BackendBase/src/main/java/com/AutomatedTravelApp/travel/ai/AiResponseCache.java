@@ -0,0 +1,133 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import com.AutomatedTravelApp.travel.model.TravelInterest;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the itinerary JSON returned by Gemini, keyed on a normalized fingerprint
+ * of the prompt inputs (destination, day span, style, budget band, interests,
+ * currency and user preferences). Exact dates are deliberately left out: only the
+ * day count, activities and flight/hotel costs of the JSON are persisted.
+ *
+ * Concurrent requests with the same fingerprint share one in-flight call, and a
+ * failed call is dropped from the cache so the next request retries.
+ */
+@Slf4j
+@Component
+public class AiResponseCache {
+
+    private final AsyncCache<String, String> cache;
+    private final int budgetBand;
+    private final long awaitMs;
+    private final GenerationMetrics metrics;
+
+    public AiResponseCache(GenerationMetrics metrics,
+                           @Value("${app.ai.cache.max-size:500}") long maxSize,
+                           @Value("${app.ai.cache.ttl-minutes:60}") long ttlMinutes,
+                           @Value("${app.ai.cache.budget-band:100}") int budgetBand,
+                           @Value("${app.ai.cache.await-ms:60000}") long awaitMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .buildAsync();
+        this.budgetBand = Math.max(1, budgetBand);
+        this.awaitMs = awaitMs;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the cached JSON for this trip's prompt inputs, or runs the loader once
+     * and caches its result. Callers that arrive while a load is running wait for it,
+     * for at most app.ai.cache.await-ms (then TimeoutException).
+     */
+    public String get(Trip trip, TravelStyle style, Callable<String> loader) throws Exception {
+        String key = fingerprint(trip, style);
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = cache.asMap().putIfAbsent(key, mine);
+        metrics.cacheLookup(existing != null);
+        if (existing != null) {
+            log.debug("AI cache hit for {}", trip.getDestination());
+            return await(existing);
+        }
+
+        try {
+            String json = loader.call();
+            mine.complete(json);
+            return json;
+        } catch (Throwable t) {
+            // Completing exceptionally also evicts the entry, and wakes any waiters.
+            mine.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    String fingerprint(Trip trip, TravelStyle style) {
+        String destination = normalize(trip.getDestination());
+        long span = (trip.getStartDate() != null && trip.getEndDate() != null)
+                ? ChronoUnit.DAYS.between(trip.getStartDate(), trip.getEndDate())
+                : 0;
+        long band = trip.getBudgetAmount() == null ? 0 : trip.getBudgetAmount().longValue() / budgetBand;
+        String interests = Optional.ofNullable(trip.getInterests()).orElseGet(Set::of).stream()
+                .map(TravelInterest::name)
+                .sorted()
+                .collect(Collectors.joining(","));
+        String preferences = normalize(Optional.ofNullable(trip.getUser())
+                .map(u -> u.getPreferences())
+                .orElse(""));
+
+        String raw = String.join("|",
+                destination,
+                Long.toString(span),
+                style == null ? TravelStyle.COMFORT.name() : style.name(),
+                Long.toString(band),
+                interests,
+                Optional.ofNullable(trip.getBudgetCurrency()).orElse(""),
+                preferences);
+        return sha256(raw);
+    }
+
+    private String await(CompletableFuture<String> future) throws Exception {
+        try {
+            return future.get(awaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static String normalize(String s) {
+        if (s == null) return "";
+        return s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha256(String s) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
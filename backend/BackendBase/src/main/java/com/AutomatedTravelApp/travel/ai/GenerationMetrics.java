@@ -0,0 +1,132 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the itinerary generation pipeline, scraped at /actuator/prometheus:
+ *
+ * - itinerary.generation.stage (timer, tag stage): prompt build, Gemini call,
+ *   JSON parse, persistence, response mapping, and the whole generate call.
+ * - itinerary.generation.result (counter, tag source): which path served each
+ *   itinerary (ai, hedged, template, local, placeholder).
+ * - itinerary.generation.parse.failures and ai.cache.requests (tag result).
+ * - itinerary.days / itinerary.activities: size of each generated itinerary.
+ *
+ * Timers keep a decaying p95 so the admin dashboard can show recent latency.
+ *
+ * It also opens the pipeline's tracing spans (observations) and puts the
+ * serving path, itinerary size and token counts on the innermost open span.
+ */
+@Component
+public class GenerationMetrics {
+
+    public enum Stage { PROMPT, GEMINI, PARSE, PERSIST, MAP, TOTAL }
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observations;
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Counter parseFailures;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final DistributionSummary days;
+    private final DistributionSummary activities;
+
+    /** Metrics only, no spans (tests and standalone use). */
+    public GenerationMetrics(MeterRegistry registry) {
+        this(registry, ObservationRegistry.NOOP);
+    }
+
+    @Autowired
+    public GenerationMetrics(MeterRegistry registry, ObservationRegistry observations) {
+        this.registry = registry;
+        this.observations = observations;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("itinerary.generation.stage")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .publishPercentiles(0.5, 0.95)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.parseFailures = registry.counter("itinerary.generation.parse.failures");
+        this.cacheHits = registry.counter("ai.cache.requests", "result", "hit");
+        this.cacheMisses = registry.counter("ai.cache.requests", "result", "miss");
+        this.days = DistributionSummary.builder("itinerary.days")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(60.0)
+                .register(registry);
+        this.activities = DistributionSummary.builder("itinerary.activities")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(500.0)
+                .register(registry);
+    }
+
+    public <T> T time(Stage stage, Callable<T> call) throws Exception {
+        return stages.get(stage).recordCallable(call);
+    }
+
+    public Timer timer(Stage stage) {
+        return stages.get(stage);
+    }
+
+    /** A not yet started span; callers add keys and run their work with observe(...). */
+    public Observation observation(String name) {
+        return Observation.createNotStarted(name, observations);
+    }
+
+    /** Adds a key to the innermost open span, if there is one. */
+    public void annotate(String key, Object value) {
+        Observation current = observations.getCurrentObservation();
+        if (current != null) {
+            current.highCardinalityKeyValue(key, String.valueOf(value));
+        }
+    }
+
+    /** Counts the path ("ai", "template", "local", "placeholder", ...) that served an itinerary. */
+    public void served(String source) {
+        registry.counter("itinerary.generation.result", "source", source).increment();
+        Observation current = observations.getCurrentObservation();
+        if (current != null) {
+            current.lowCardinalityKeyValue("itinerary.source", source);
+        }
+    }
+
+    public void parseFailed() {
+        parseFailures.increment();
+    }
+
+    public void cacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    public void itinerarySize(int dayCount, int activityCount) {
+        days.record(dayCount);
+        activities.record(activityCount);
+        annotate("itinerary.days", dayCount);
+        annotate("itinerary.activities", activityCount);
+    }
+
+    /** Recent p95 of the stage in milliseconds, or -1 if it has no recent samples. */
+    public long p95Millis(Stage stage) {
+        return Arrays.stream(stages.get(stage).takeSnapshot().percentileValues())
+                .filter(p -> p.percentile() == 0.95)
+                .mapToDouble(p -> p.value(TimeUnit.MILLISECONDS))
+                .filter(v -> v > 0)
+                .mapToLong(v -> (long) Math.ceil(v))
+                .findFirst()
+                .orElse(-1);
+    }
+}
@@ -0,0 +1,158 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs an AI call under a hard deadline (app.ai.deadline-ms), optionally firing a
+ * second "hedge" attempt when the first hasn't answered after the recent p95
+ * latency. The first successful attempt wins and a still running hedge is
+ * cancelled. The primary is left to finish: it is usually the AI cache's shared
+ * load, and interrupting it would fail every request waiting on that entry.
+ *
+ * Streams get their own, longer deadline (app.ai.stream-deadline-ms) and no
+ * hedge: a long itinerary takes a while to stream out even when nothing is wrong.
+ *
+ * Until enough latencies have been seen, app.ai.hedge.initial-delay-ms is used.
+ * The hedge delay never drops below app.ai.hedge.min-delay-ms, so a run of fast
+ * cache-hits can't make every call fire twice.
+ */
+@Slf4j
+@Component
+public class HedgedAiCaller {
+
+    /** Samples needed before the tracked p95 replaces the initial hedge delay. */
+    private static final int MIN_SAMPLES = 20;
+
+    private final AsyncTaskExecutor executor;
+    private final long deadlineMs;
+    private final long streamDeadlineMs;
+    private final boolean hedgeEnabled;
+    private final long initialHedgeDelayMs;
+    private final long minHedgeDelayMs;
+    private final LatencyTracker latencies = new LatencyTracker(256);
+    private final ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+    /** Only fires hedges (the hedge itself runs on the executor), so one thread is enough. */
+    private final ScheduledExecutorService hedgeTimer = Executors.newSingleThreadScheduledExecutor(daemon("ai-hedge-timer-"));
+
+    public HedgedAiCaller(@Qualifier("aiCallExecutor") AsyncTaskExecutor executor,
+                          @Value("${app.ai.deadline-ms:20000}") long deadlineMs,
+                          @Value("${app.ai.stream-deadline-ms:60000}") long streamDeadlineMs,
+                          @Value("${app.ai.hedge.enabled:true}") boolean hedgeEnabled,
+                          @Value("${app.ai.hedge.initial-delay-ms:8000}") long initialHedgeDelayMs,
+                          @Value("${app.ai.hedge.min-delay-ms:1000}") long minHedgeDelayMs) {
+        this.executor = executor;
+        this.deadlineMs = deadlineMs;
+        this.streamDeadlineMs = streamDeadlineMs;
+        this.hedgeEnabled = hedgeEnabled;
+        this.initialHedgeDelayMs = initialHedgeDelayMs;
+        this.minHedgeDelayMs = minHedgeDelayMs;
+    }
+
+    /** Which attempt produced the value. */
+    public record Outcome(String value, boolean hedged) {}
+
+    /**
+     * Calls primary, and hedge too if primary is slow (hedge may be null to disable
+     * hedging for this call). Throws TimeoutException once the deadline passes, or
+     * the failure of the last attempt to fail.
+     */
+    public Outcome call(Callable<String> primary, Callable<String> hedge) throws Exception {
+        return call(primary, hedge, deadlineMs);
+    }
+
+    /** Runs a streaming call, unhedged, under the stream deadline. */
+    public Outcome stream(Callable<String> call) throws Exception {
+        return call(call, null, streamDeadlineMs);
+    }
+
+    private Outcome call(Callable<String> primary, Callable<String> hedge, long deadlineMs) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        List<Future<?>> hedges = new CopyOnWriteArrayList<>();
+
+        Future<?> first = submit(primary, false, result, running);
+        Future<?> timer = null;
+        long hedgeDelay = hedgeDelayMs();
+        if (hedge != null && hedgeEnabled && hedgeDelay < deadlineMs) {
+            // The timer thread submits the hedge, so hand it the caller's context (AiCallContext, trace).
+            Runnable fireHedge = snapshots.captureAll().wrap(AiCallContext.wrap(() -> {
+                // Only hedge a call that is still running, not one that already failed.
+                if (!result.isDone() && running.getAndIncrement() > 0) {
+                    log.info("AI call still running after {} ms, sending hedge request", hedgeDelay);
+                    try {
+                        hedges.add(submit(hedge, true, result, running));
+                    } catch (RuntimeException e) {
+                        log.warn("Hedge request rejected: {}", e.getMessage());
+                        running.decrementAndGet();
+                    }
+                }
+            }));
+            timer = hedgeTimer.schedule(fireHedge, hedgeDelay, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        } finally {
+            // Completes the result (so no late hedge starts) and stops a running hedge.
+            result.cancel(false);
+            if (timer != null) timer.cancel(false);
+            first.cancel(false);
+            hedges.forEach(f -> f.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeTimer.shutdownNow();
+    }
+
+    private static CustomizableThreadFactory daemon(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    long hedgeDelayMs() {
+        if (latencies.samples() < MIN_SAMPLES) return initialHedgeDelayMs;
+        return Math.max(minHedgeDelayMs, latencies.percentile(95));
+    }
+
+    private Future<?> submit(Callable<String> call, boolean hedged, CompletableFuture<Outcome> result,
+                             AtomicInteger running) {
+        return executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                String value = call.call();
+                latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                result.complete(new Outcome(value, hedged));
+            } catch (Exception e) {
+                if (running.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+}
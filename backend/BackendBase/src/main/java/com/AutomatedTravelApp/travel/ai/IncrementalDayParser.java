@@ -0,0 +1,106 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Pulls complete day objects out of a partially received itinerary JSON.
+ *
+ * Feed it text chunks in order; each time an element of the top-level "days"
+ * array closes, it is parsed into an AiDay and handed to the callback, along
+ * with its 1-based position in the array. Text
+ * before the root object (e.g. a ```json fence) is ignored. Not thread-safe:
+ * one parser per stream.
+ */
+@Slf4j
+public class IncrementalDayParser {
+
+    private final ObjectMapper objectMapper;
+    private final ObjIntConsumer<AiItineraryJson.AiDay> onDay;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int scanned;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private int stringStart = -1;
+    private String lastRootString;
+    private boolean inDays;
+    private boolean daysDone;
+    private int dayStart = -1;
+    private int emitted;
+
+    public IncrementalDayParser(ObjectMapper objectMapper, ObjIntConsumer<AiItineraryJson.AiDay> onDay) {
+        this.objectMapper = objectMapper;
+        this.onDay = onDay;
+    }
+
+    public void accept(String chunk) {
+        buffer.append(chunk);
+        for (; scanned < buffer.length() && !daysDone; scanned++) {
+            scan(buffer.charAt(scanned), scanned);
+        }
+    }
+
+    /** Number of days handed to the callback so far. */
+    public int emitted() {
+        return emitted;
+    }
+
+    private void scan(char c, int i) {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (depth == 1) {
+                    // Last string seen directly in the root object: the key of the next array value.
+                    lastRootString = buffer.substring(stringStart + 1, i);
+                }
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                stringStart = i;
+            }
+            case '{', '[' -> {
+                if (c == '[' && depth == 1 && "days".equals(lastRootString)) {
+                    inDays = true;
+                } else if (c == '{' && inDays && depth == 2) {
+                    dayStart = i;
+                }
+                depth++;
+            }
+            case '}', ']' -> {
+                depth--;
+                if (c == '}' && inDays && depth == 2 && dayStart >= 0) {
+                    emit(buffer.substring(dayStart, i + 1));
+                    dayStart = -1;
+                } else if (c == ']' && inDays && depth == 1) {
+                    inDays = false;
+                    daysDone = true;
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void emit(String dayJson) {
+        AiItineraryJson.AiDay day;
+        try {
+            day = objectMapper.readValue(dayJson, AiItineraryJson.AiDay.class);
+        } catch (Exception e) {
+            log.warn("Skipping unparsable streamed day: {}", e.getMessage());
+            return;
+        }
+        emitted++;
+        onDay.accept(day, emitted);
+    }
+}
@@ -0,0 +1,42 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window of the most recent call latencies, used to derive the hedge delay.
+ * Recording is lock-free; percentile() copies and sorts the (small) window.
+ */
+public class LatencyTracker {
+
+    private final AtomicLongArray window;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public LatencyTracker(int size) {
+        this.window = new AtomicLongArray(size);
+    }
+
+    public void record(long millis) {
+        long n = recorded.getAndIncrement();
+        window.set((int) (n % window.length()), millis);
+    }
+
+    /** Number of samples currently in the window. */
+    public int samples() {
+        return (int) Math.min(recorded.get(), window.length());
+    }
+
+    /** The p-th percentile (0-100) of the window, or -1 when nothing was recorded yet. */
+    public long percentile(double p) {
+        int n = samples();
+        if (n == 0) return -1;
+        long[] copy = new long[n];
+        for (int i = 0; i < n; i++) {
+            copy[i] = window.get(i);
+        }
+        Arrays.sort(copy);
+        int rank = (int) Math.ceil(p / 100.0 * n) - 1;
+        return copy[Math.max(0, Math.min(rank, n - 1))];
+    }
+}
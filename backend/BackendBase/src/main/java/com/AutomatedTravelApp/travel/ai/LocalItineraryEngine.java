@@ -0,0 +1,234 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import com.AutomatedTravelApp.travel.model.TravelInterest;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.CatalogActivityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * In-process itinerary planner used when Gemini is unavailable. Productionized
+ * from the KNNPacing prototype: catalog activities for the destination are ranked
+ * by how close their intensity score is to the traveller's (pace + budget), with
+ * activities outside the trip's interests pushed back, then packed into days
+ * under the style's {@link PacingRules}. Output has the same JSON shape as the AI.
+ *
+ * The catalog is cached per destination, so a warm call does no I/O. A cold
+ * destination is queried on catalogLoaderExecutor and the caller parks on the
+ * future: the query never runs inside the cache's map lock, which would pin a
+ * virtual thread's carrier for the length of the JDBC call.
+ */
+@Component
+public class LocalItineraryEngine implements AiClient {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final LocalTime DAY_START = LocalTime.of(8, 0);
+    /** Travel/buffer time left between two activities of the same day. */
+    private static final int GAP_MINUTES = 30;
+    /** Distance added to activities that match none of the trip's interests. */
+    private static final int INTEREST_PENALTY = 3;
+    private static final double MIN_BUDGET = 100;
+    private static final double MAX_BUDGET = 5000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AsyncLoadingCache<String, List<CatalogActivity>> catalog;
+
+    public LocalItineraryEngine(CatalogActivityRepository catalogRepository,
+                                @Qualifier("catalogLoaderExecutor") Executor loader,
+                                @Value("${app.ai.local.catalog-ttl-minutes:30}") long catalogTtlMinutes) {
+        this.catalog = Caffeine.newBuilder()
+                .maximumSize(500)
+                .expireAfterWrite(Duration.ofMinutes(catalogTtlMinutes))
+                // Concurrent lookups of a cold destination share the one in-flight load.
+                .executor(loader)
+                .buildAsync(destination -> List.copyOf(
+                        catalogRepository.findByDestinationIgnoreCaseOrderByIdAsc(destination)));
+    }
+
+    @Override
+    public String generateItineraryJson(Trip trip, GenerateItineraryResponse responseData) throws Exception {
+        TravelStyle style = Optional.ofNullable(responseData.getTravelStyle()).orElse(trip.getTravelStyle());
+        return objectMapper.writeValueAsString(plan(trip, style));
+    }
+
+    /** Plans the given days only, skipping catalog activities already planned on the other days. */
+    @Override
+    public String generateDaysJson(Trip trip, TravelStyle style, List<Integer> dayNumbers,
+                                   Map<Integer, List<String>> otherDays) throws Exception {
+        Set<String> planned = otherDays.values().stream()
+                .flatMap(List::stream)
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        return objectMapper.writeValueAsString(plan(trip, style, dayNumbers, planned));
+    }
+
+    AiItineraryJson plan(Trip trip, TravelStyle style) {
+        long dayCount = Math.max(1, ChronoUnit.DAYS.between(trip.getStartDate(), trip.getEndDate()) + 1);
+        List<Integer> dayNumbers = IntStream.rangeClosed(1, (int) dayCount).boxed().toList();
+        return plan(trip, style, dayNumbers, Set.of());
+    }
+
+    /**
+     * The destination's catalog, best match for the trip's budget, interests and
+     * the given style first. Empty when the destination has no catalog.
+     */
+    public List<CatalogActivity> rankedCatalog(Trip trip, TravelStyle style) {
+        int userScore = userScore(PacingRules.of(style), trip.getBudgetAmount());
+        Set<TravelInterest> interests = Optional.ofNullable(trip.getInterests()).orElseGet(Set::of);
+        // Stable sort: ties keep catalog order, so the same trip always gets the same plan.
+        List<CatalogActivity> ranked = new ArrayList<>(activitiesFor(trip.getDestination()));
+        ranked.sort(Comparator.comparingInt(a -> distance(a, userScore, interests)));
+        return ranked;
+    }
+
+    private AiItineraryJson plan(Trip trip, TravelStyle style, List<Integer> dayNumbers, Set<String> exclude) {
+        List<CatalogActivity> activities = rankedCatalog(trip, style);
+        if (activities.isEmpty()) {
+            throw new IllegalStateException("No catalog activities for " + trip.getDestination());
+        }
+
+        PacingRules rules = PacingRules.of(style);
+        int people = Optional.ofNullable(trip.getPeopleCount()).orElse(1);
+
+        List<CatalogActivity> ranked = activities.stream()
+                .filter(a -> !exclude.contains(a.getName().toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (ranked.isEmpty()) {
+            ranked = new ArrayList<>(activities); // everything is planned already: allow repeats
+        }
+
+        LocalDate start = trip.getStartDate();
+        List<AiItineraryJson.AiDay> days = new ArrayList<>();
+        List<CatalogActivity> remaining = new ArrayList<>(ranked);
+        double total = 0;
+        for (int dayNumber : dayNumbers) {
+            List<CatalogActivity> picked = List.of();
+            if (!rules.isRestDay(dayNumber)) {
+                if (remaining.isEmpty()) {
+                    remaining = new ArrayList<>(ranked); // reuse when the catalog runs out
+                }
+                picked = selectForDay(remaining, rules);
+            }
+            AiItineraryJson.AiDay day = schedule(picked, start.plusDays(dayNumber - 1), people);
+            total += day.getDayCost();
+            days.add(day);
+        }
+
+        AiItineraryJson itinerary = new AiItineraryJson();
+        itinerary.setItineraryId("LOCAL-" + Optional.ofNullable(trip.getId()).map(String::valueOf).orElse("0"));
+        itinerary.setDays(days);
+        itinerary.setTotalCost(total);
+        return itinerary;
+    }
+
+    private List<CatalogActivity> activitiesFor(String destination) {
+        String key = Optional.ofNullable(destination).orElse("").trim().toLowerCase(Locale.ROOT);
+        List<CatalogActivity> found = catalog(key);
+        if (found.isEmpty() && key.contains(",")) {
+            // "Muscat, Oman" -> "muscat"
+            found = catalog(key.substring(0, key.indexOf(',')).trim());
+        }
+        return found;
+    }
+
+    private List<CatalogActivity> catalog(String key) {
+        try {
+            return catalog.get(key).join();
+        } catch (CompletionException e) {
+            // Surface the repository's own exception, as the synchronous load did.
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Takes best-ranked activities off the pool until the day's count or duration limit is hit. */
+    static List<CatalogActivity> selectForDay(List<CatalogActivity> pool, PacingRules rules) {
+        List<CatalogActivity> picked = new ArrayList<>(rules.maxActivities());
+        int minutes = 0;
+        var it = pool.iterator();
+        while (it.hasNext() && picked.size() < rules.maxActivities()) {
+            CatalogActivity a = it.next();
+            if (minutes + a.getDurationMinutes() <= rules.maxMinutes()) {
+                picked.add(a);
+                minutes += a.getDurationMinutes();
+                it.remove();
+            }
+        }
+        return picked;
+    }
+
+    private static AiItineraryJson.AiDay schedule(List<CatalogActivity> picked, LocalDate date, int people) {
+        List<CatalogActivity> ordered = new ArrayList<>(picked);
+        ordered.sort(Comparator.comparing(a -> Optional.ofNullable(a.getStartTime()).orElse(DAY_START)));
+
+        List<AiItineraryJson.AiActivity> activities = new ArrayList<>(ordered.size());
+        LocalTime cursor = DAY_START;
+        double dayCost = 0;
+        for (CatalogActivity a : ordered) {
+            LocalTime preferred = Optional.ofNullable(a.getStartTime()).orElse(DAY_START);
+            LocalTime begin = preferred.isAfter(cursor) ? preferred : cursor;
+            LocalTime end = begin.plusMinutes(a.getDurationMinutes());
+
+            var activity = new AiItineraryJson.AiActivity();
+            activity.setId("A" + (activities.size() + 1));
+            activity.setName(a.getName());
+            activity.setStart(begin.format(TIME));
+            activity.setEnd(end.format(TIME));
+            activity.setCost(Optional.ofNullable(a.getCostAmount()).orElse(BigDecimal.ZERO).doubleValue() * people);
+            activities.add(activity);
+
+            dayCost += activity.getCost();
+            cursor = end.plusMinutes(GAP_MINUTES);
+        }
+
+        var day = new AiItineraryJson.AiDay();
+        day.setDate(date.format(DATE));
+        day.setActivities(activities);
+        day.setDayCost(dayCost);
+        return day;
+    }
+
+    /** Pace score plus the budget normalized to 0-10, clamped to 1-10 (KNNPacing's calculateUserScore). */
+    static int userScore(PacingRules rules, BigDecimal budgetAmount) {
+        double budget = budgetAmount == null ? MIN_BUDGET : budgetAmount.doubleValue();
+        budget = Math.max(MIN_BUDGET, Math.min(MAX_BUDGET, budget));
+        int budgetScore = (int) Math.round((budget - MIN_BUDGET) / (MAX_BUDGET - MIN_BUDGET) * 10);
+        return Math.max(1, Math.min(rules.baseScore() + budgetScore, 10));
+    }
+
+    private static int distance(CatalogActivity a, int userScore, Set<TravelInterest> interests) {
+        int d = Math.abs(a.getScore() - userScore);
+        if (!interests.isEmpty() && !interests.contains(a.getInterest())) {
+            d += INTEREST_PENALTY;
+        }
+        return d;
+    }
+}
@@ -0,0 +1,51 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+
+/**
+ * Per-style pacing limits shared by the Gemini prompt and the local engine, so
+ * both paths plan days the same way (see the BasicPacing/KNNPacing prototypes).
+ */
+public enum PacingRules {
+    LUXURY(2, 300, 3, 3,
+            "Max 2 activities/day, rest every 2-3 days, total activity duration 4-5 hrs, more budget on hotel & food"),
+    COMFORT(3, 300, 0, 5,
+            "Balanced plan, 2-3 activities/day, total activity duration 5 hrs"),
+    BUDGET(3, 420, 5, 8,
+            "Max 3 activities/day, rest every 4-5 days, total activity duration 6-7 hrs, balanced budget");
+
+    private final int maxActivities;
+    private final int maxMinutes;
+    private final int restEvery;
+    private final int baseScore;
+    private final String promptText;
+
+    PacingRules(int maxActivities, int maxMinutes, int restEvery, int baseScore, String promptText) {
+        this.maxActivities = maxActivities;
+        this.maxMinutes = maxMinutes;
+        this.restEvery = restEvery;
+        this.baseScore = baseScore;
+        this.promptText = promptText;
+    }
+
+    public static PacingRules of(TravelStyle style) {
+        return style == null ? COMFORT : valueOf(style.name());
+    }
+
+    public int maxActivities() { return maxActivities; }
+
+    /** Upper bound on the summed activity duration of one day. */
+    public int maxMinutes() { return maxMinutes; }
+
+    /** Every n-th day is a rest day; 0 means no rest days. */
+    public int restEvery() { return restEvery; }
+
+    /** Pace component of the user score (relaxed 3, balanced 5, fast-paced 8). */
+    public int baseScore() { return baseScore; }
+
+    public String promptText() { return promptText; }
+
+    public boolean isRestDay(int dayNumber) {
+        return restEvery > 0 && dayNumber % restEvery == 0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.AutomatedTravelApp.travel.ai;
+
+/**
+ * Free-form text completion. Kept apart from AiClient because only a model
+ * can answer an arbitrary prompt; the local engine only plans itineraries.
+ */
+public interface PromptClient {
+    String complete(String prompt);
+}
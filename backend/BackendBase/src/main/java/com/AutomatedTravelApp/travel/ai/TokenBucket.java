@@ -0,0 +1,73 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Classic token bucket: refills at a fixed rate up to a burst capacity, one
+ * token per AI call. Used to keep background work under a share of the Gemini
+ * quota.
+ *
+ * Guarded by a ReentrantLock rather than synchronized so callers on virtual
+ * threads never pin their carrier.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+    private double tokens;
+    private long lastRefill;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TokenBucket(double ratePerMinute, int burst) {
+        this(ratePerMinute, burst, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerMinute, int burst, LongSupplier clock) {
+        if (ratePerMinute <= 0) throw new IllegalArgumentException("ratePerMinute must be positive");
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = ratePerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    /** Takes a token if one is available right now. */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill();
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Nanoseconds until the next token is available; 0 if one is available now. */
+    public long nanosToNextToken() {
+        lock.lock();
+        try {
+            refill();
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Blocks until a token is available. */
+    public void acquire() throws InterruptedException {
+        while (!tryAcquire()) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(nanosToNextToken(), TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
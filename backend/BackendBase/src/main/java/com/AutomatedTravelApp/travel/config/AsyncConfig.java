@@ -0,0 +1,155 @@
+package com.AutomatedTravelApp.travel.config;
+
+import com.AutomatedTravelApp.travel.ai.AiCallContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+/**
+ * Executors for AI work. Each copies the submitter's AiCallContext onto the
+ * worker thread so AiCallScheduler still knows who a call is for, along with
+ * the current tracing span so AI calls show up inside the request's trace.
+ *
+ * With spring.threads.virtual.enabled=true on Java 21+, aiTaskExecutor and
+ * aiCallExecutor start a virtual thread per task instead of using a pool (Tomcat
+ * switches to virtual threads too). They still accept at most as many tasks as
+ * the pooled versions would have held; Gemini concurrency stays bounded by
+ * AiCallScheduler either way. On older JVMs the property has no effect.
+ */
+@Configuration
+public class AsyncConfig {
+
+    private static final TaskDecorator CONTEXT = new CompositeTaskDecorator(
+            List.<TaskDecorator>of(AiCallContext::wrap, new ContextPropagatingTaskDecorator()));
+
+    /**
+     * Bounded pool for AI generation jobs. When both the pool and the queue are
+     * full, submissions are rejected instead of piling up behind a slow Gemini.
+     */
+    @Bean(name = "aiTaskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    ThreadPoolTaskExecutor aiTaskExecutor(
+            @Value("${app.ai.executor.core-size:4}") int coreSize,
+            @Value("${app.ai.executor.max-size:8}") int maxSize,
+            @Value("${app.ai.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-gen-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setTaskDecorator(CONTEXT);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the individual Gemini calls (and hedges) that generate waits on with a
+     * deadline. Separate from aiTaskExecutor so an async job waiting on its AI call
+     * never competes with that call for a thread.
+     */
+    @Bean(name = "aiCallExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    ThreadPoolTaskExecutor aiCallExecutor(
+            @Value("${app.ai.call-executor.max-size:16}") int maxSize,
+            @Value("${app.ai.call-executor.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-call-");
+        executor.setTaskDecorator(CONTEXT);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "aiTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    SimpleAsyncTaskExecutor virtualAiTaskExecutor(
+            @Value("${app.ai.executor.max-size:8}") int maxSize,
+            @Value("${app.ai.executor.queue-capacity:100}") int queueCapacity) {
+        SimpleAsyncTaskExecutor executor = virtualExecutor("ai-gen-", maxSize + queueCapacity);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    @Bean(name = "aiCallExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    SimpleAsyncTaskExecutor virtualAiCallExecutor(
+            @Value("${app.ai.call-executor.max-size:16}") int maxSize,
+            @Value("${app.ai.call-executor.queue-capacity:32}") int queueCapacity) {
+        return virtualExecutor("ai-call-", maxSize + queueCapacity);
+    }
+
+    private static SimpleAsyncTaskExecutor virtualExecutor(String prefix, int limit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(limit);
+        executor.setRejectTasksWhenLimitReached(true);
+        executor.setTaskDecorator(CONTEXT);
+        return executor;
+    }
+
+    /**
+     * Runs bulk generation items. Kept small on purpose: batch work only ever
+     * holds this many AI calls at once, leaving the rest of the Gemini
+     * concurrency for interactive requests.
+     */
+    @Bean(name = "aiBatchExecutor")
+    ThreadPoolTaskExecutor aiBatchExecutor(
+            @Value("${app.ai.batch.max-concurrency:2}") int maxConcurrency,
+            @Value("${app.ai.batch.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-batch-");
+        executor.setTaskDecorator(CONTEXT);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Loads the local engine's activity catalog for a destination on a cache
+     * miss. Small: each load is one indexed query and concurrent misses for the
+     * same destination share it.
+     */
+    @Bean(name = "catalogLoaderExecutor")
+    ThreadPoolTaskExecutor catalogLoaderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("catalog-");
+        executor.setTaskDecorator(CONTEXT);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the template refresh: one thread, since a refresh is a long run of
+     * sequential AI calls, kept off aiBatchExecutor so partner batches keep
+     * their whole pool while it runs.
+     */
+    @Bean(name = "templateWarmerExecutor")
+    ThreadPoolTaskExecutor templateWarmerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        // ItineraryTemplateStore never starts a refresh while one is running.
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("ai-templates-");
+        executor.setTaskDecorator(CONTEXT);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,17 +1,24 @@
 package com.AutomatedTravelApp.travel.config;
 
 import com.AutomatedTravelApp.travel.security.JwtAuthFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -32,6 +39,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/health",
+                                "/actuator/health",
                                 "/api/itineraries/health",
                                 "/api/itineraries/generate",
                                 "/api/itineraries/**",
@@ -45,6 +53,39 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * /actuator/prometheus carries internal pool/queue sizes and destinations in
+     * tags, so it needs the scrape credential (HTTP basic, app.metrics.scrape-user
+     * and scrape-password) or an ADMIN token. With no scrape password set, only
+     * admins can read it.
+     */
+    @Bean
+    @Order(1)
+    SecurityFilterChain metricsFilterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter, PasswordEncoder encoder,
+                                           @Value("${app.metrics.scrape-user:prometheus}") String scrapeUser,
+                                           @Value("${app.metrics.scrape-password:}") String scrapePassword) throws Exception {
+        var scrapers = new InMemoryUserDetailsManager();
+        if (!scrapePassword.isBlank()) {
+            scrapers.createUser(User.withUsername(scrapeUser)
+                    .password(encoder.encode(scrapePassword))
+                    .roles("METRICS")
+                    .build());
+        }
+        var provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(scrapers);
+
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(provider))
+                .httpBasic(Customizer.withDefaults())
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyRole("METRICS", "ADMIN"))
+                .addFilterBefore(jwtAuthFilter, BasicAuthenticationFilter.class);
+
+        return http.build();
+    }
+
     @Bean
     AuthenticationManager authenticationManager(UserDetailsService uds, PasswordEncoder encoder) {
         var provider = new DaoAuthenticationProvider(encoder);
@@ -3,11 +3,13 @@ package com.AutomatedTravelApp.travel.controller;
 import com.AutomatedTravelApp.travel.dto.*;
 import com.AutomatedTravelApp.travel.model.User;
 import com.AutomatedTravelApp.travel.repository.UserRepository;
+import com.AutomatedTravelApp.travel.security.PrincipalCache;
 import com.AutomatedTravelApp.travel.service.AdminService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -19,6 +21,7 @@ public class AdminController {
 
     private final AdminService adminService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     // Cards summary
     @GetMapping("/summary")
@@ -27,9 +30,17 @@ public class AdminController {
     }
 
     // Application Logs (table)
+    // Newest first; page with ?before=<id of last row>, filter with ?level= and ?source=
     @GetMapping("/logs")
-    public List<LogRow> logs() {
-        return adminService.recentLogs();
+    public List<LogRow> logs(@RequestParam(required=false) Long before,
+                             @RequestParam(required=false) Integer limit,
+                             @RequestParam(required=false) String level,
+                             @RequestParam(required=false) String source) {
+        try {
+            return adminService.logs(before, limit, level, source);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     // Error Monitor (buckets)
@@ -44,7 +55,11 @@ public class AdminController {
                             @RequestParam String message,
                             @RequestParam(defaultValue="System") String source,
                             @RequestParam(required=false) String userEmail) {
-        return adminService.addLog(level, message, source, userEmail);
+        try {
+            return adminService.addLog(level, message, source, userEmail);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
     }
 
     @DeleteMapping("/logs/{id}")
@@ -60,32 +75,34 @@ public class AdminController {
     }
 
     // --- User management (simple list + ban/unban) ---
+    // Paged by id: ?after=<id of last row>&limit=; search with ?q= (email/name), filter with ?status=
     @GetMapping("/users")
-    public List<UserRow> users() {
-        return userRepository.findAll().stream()
-                .map(u -> UserRow.builder()
-                        .id(u.getId())
-                        .name(null) // fill if you add 'name' on User
-                        .email(u.getEmail())
-                        .status(u.isBanned() ? "BANNED" : "ACTIVE")
-                        .build())
-                .toList();
+    public List<UserRow> users(@RequestParam(required=false) Long after,
+                               @RequestParam(required=false) Integer limit,
+                               @RequestParam(required=false) String q,
+                               @RequestParam(required=false) String status) {
+        try {
+            return adminService.users(after, limit, q, status);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @PostMapping("/users/{id}/ban")
     public ResponseEntity<?> ban(@PathVariable Long id) {
-        // add a 'banned' or 'status' field on User to persist
         User u = userRepository.findById(id).orElseThrow();
-        // u.setStatus("BANNED");
+        u.setBanned(true);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/users/{id}/unban")
     public ResponseEntity<?> unban(@PathVariable Long id) {
         User u = userRepository.findById(id).orElseThrow();
-        // u.setStatus("ACTIVE");
+        u.setBanned(false);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
         return ResponseEntity.ok().build();
     }
 }
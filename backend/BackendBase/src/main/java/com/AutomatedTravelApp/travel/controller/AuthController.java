@@ -6,6 +6,7 @@ import com.AutomatedTravelApp.travel.model.Role;
 import com.AutomatedTravelApp.travel.model.User;
 import com.AutomatedTravelApp.travel.repository.UserRepository;
 import com.AutomatedTravelApp.travel.security.JwtService;
+import com.AutomatedTravelApp.travel.security.PrincipalCache;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,15 +27,18 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final PrincipalCache principalCache;
 
     public AuthController(UserRepository userRepository,
                           PasswordEncoder passwordEncoder,
                           AuthenticationManager authenticationManager,
-                          JwtService jwtService) {
+                          JwtService jwtService,
+                          PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.principalCache = principalCache;
     }
 
     @PostMapping("/register")
@@ -83,6 +87,7 @@ public class AuthController {
         User u = userRepository.findById(id).orElseThrow();
         u.setBanned(true);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
         return ResponseEntity.ok().build();
     }
 
@@ -91,6 +96,7 @@ public class AuthController {
         User u = userRepository.findById(id).orElseThrow();
         u.setBanned(false);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -1,15 +1,31 @@
 package com.AutomatedTravelApp.travel.controller;
 
+import com.AutomatedTravelApp.travel.dto.ActivityRequest;
+import com.AutomatedTravelApp.travel.dto.BatchGenerationJob;
 import com.AutomatedTravelApp.travel.dto.BudgetBreakdown;
 import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
 import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.dto.GenerationJob;
+import com.AutomatedTravelApp.travel.dto.ItineraryDelta;
+import com.AutomatedTravelApp.travel.dto.MoveRequest;
+import com.AutomatedTravelApp.travel.dto.RegenerateDaysRequest;
+import com.AutomatedTravelApp.travel.service.BatchGenerationService;
+import com.AutomatedTravelApp.travel.service.GenerationJobService;
+import com.AutomatedTravelApp.travel.service.ItineraryEditService;
 import com.AutomatedTravelApp.travel.service.ItineraryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/itineraries")
@@ -17,6 +33,12 @@ import org.springframework.web.server.ResponseStatusException;
 public class ItineraryController {
 
     private final ItineraryService itineraryService;
+    private final GenerationJobService generationJobService;
+    private final BatchGenerationService batchGenerationService;
+    private final ItineraryEditService itineraryEditService;
+
+    @Value("${app.itinerary.stream.timeout-ms:180000}")
+    private long streamTimeoutMs;
 
     @GetMapping("/health")
     public String health() {
@@ -25,13 +47,61 @@ public class ItineraryController {
 
     @PostMapping("/generate")
     public ResponseEntity<GenerateItineraryResponse> generate(@Valid @RequestBody GenerateItineraryRequest request) {
-        if (request.getStartDate() != null && request.getEndDate() != null
-                && request.getEndDate().isBefore(request.getStartDate())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate must be on/after startDate");
-        }
+        checkDates(request);
         return ResponseEntity.ok(itineraryService.generate(request));
     }
 
+    // Async variant: returns a job id right away; poll GET /jobs/{jobId} for the result.
+    @PostMapping("/generate/async")
+    public ResponseEntity<GenerationJob> generateAsync(@Valid @RequestBody GenerateItineraryRequest request) {
+        checkDates(request);
+        try {
+            GenerationJob job = generationJobService.submit(request);
+            return ResponseEntity.accepted().body(job);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Generation queue is full, retry later");
+        }
+    }
+
+    // Server-sent events: a "day" event per generated day as Gemini streams it, then "complete".
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generateStream(@Valid @RequestBody GenerateItineraryRequest request) {
+        checkDates(request);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        try {
+            generationJobService.stream(request, emitter);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Generation queue is full, retry later");
+        }
+        return emitter;
+    }
+
+    // Bulk variant: identical requests are generated once; poll GET /batches/{batchId} for per-item status.
+    @PostMapping("/generate/batch")
+    public ResponseEntity<BatchGenerationJob> generateBatch(
+            @RequestBody List<@Valid GenerateItineraryRequest> requests) {
+        requests.forEach(this::checkDates);
+        try {
+            return ResponseEntity.accepted().body(batchGenerationService.submit(requests));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<BatchGenerationJob> getBatch(@PathVariable("batchId") String batchId) {
+        return batchGenerationService.find(batchId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown batch: " + batchId));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<GenerationJob> getJob(@PathVariable("jobId") String jobId) {
+        return generationJobService.find(jobId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job: " + jobId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GenerateItineraryResponse> getById(@PathVariable("id") Long id) {
         // Requires: public GenerateItineraryResponse getById(Long) in ItineraryService
@@ -48,18 +118,77 @@ public class ItineraryController {
 
     @GetMapping("/{id}/budget")
     public BudgetBreakdown getBudget(@PathVariable("id") Long id) {
-        GenerateItineraryResponse response = itineraryService.getById(id);
-
-        BudgetBreakdown breakdown = new BudgetBreakdown();
-        if (response != null && response.getBudgetBreakdown() != null) {
-            breakdown.flightCost   = response.getBudgetBreakdown().getOrDefault("flight",   0.0);
-            breakdown.hotelCost    = response.getBudgetBreakdown().getOrDefault("hotel",    0.0);
-            breakdown.activityCost = response.getBudgetBreakdown().getOrDefault("activity", 0.0);
-        } else {
-            breakdown.flightCost = 0.0;
-            breakdown.hotelCost = 0.0;
-            breakdown.activityCost = 0.0;
+        return itineraryService.getBudget(id);
+    }
+
+    @PostMapping("/{id}/days/regenerate")
+    public GenerateItineraryResponse regenerateDays(@PathVariable("id") Long id,
+                                                    @Valid @RequestBody RegenerateDaysRequest request) {
+        try {
+            return itineraryService.regenerateDays(id, request.getDayNumbers());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    // Incremental edits: each returns an ItineraryDelta rather than the whole itinerary.
+
+    @PostMapping("/{id}/days/{dayNumber}/activities")
+    public ResponseEntity<ItineraryDelta> addActivity(@PathVariable("id") Long id,
+                                                      @PathVariable("dayNumber") int dayNumber,
+                                                      @Valid @RequestBody ActivityRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(edit(() -> itineraryEditService.addActivity(id, dayNumber, request)));
+    }
+
+    @PatchMapping("/{id}/activities/{activityId}/position")
+    public ItineraryDelta moveActivity(@PathVariable("id") Long id,
+                                       @PathVariable("activityId") Long activityId,
+                                       @Valid @RequestBody MoveRequest request) {
+        return edit(() -> itineraryEditService.moveActivity(id, activityId, request));
+    }
+
+    @DeleteMapping("/{id}/activities/{activityId}")
+    public ItineraryDelta deleteActivity(@PathVariable("id") Long id,
+                                         @PathVariable("activityId") Long activityId) {
+        return edit(() -> itineraryEditService.deleteActivity(id, activityId));
+    }
+
+    @PostMapping("/{id}/days")
+    public ResponseEntity<ItineraryDelta> addDay(@PathVariable("id") Long id,
+                                                 @Valid @RequestBody(required = false) MoveRequest request) {
+        MoveRequest target = request != null ? request : new MoveRequest();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(edit(() -> itineraryEditService.addDay(id, target)));
+    }
+
+    @PatchMapping("/{id}/days/{dayNumber}/position")
+    public ItineraryDelta moveDay(@PathVariable("id") Long id,
+                                  @PathVariable("dayNumber") int dayNumber,
+                                  @Valid @RequestBody MoveRequest request) {
+        return edit(() -> itineraryEditService.moveDay(id, dayNumber, request));
+    }
+
+    @DeleteMapping("/{id}/days/{dayNumber}")
+    public ItineraryDelta deleteDay(@PathVariable("id") Long id,
+                                    @PathVariable("dayNumber") int dayNumber) {
+        return edit(() -> itineraryEditService.deleteDay(id, dayNumber));
+    }
+
+    private static ItineraryDelta edit(Supplier<ItineraryDelta> edit) {
+        try {
+            return edit.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    private void checkDates(GenerateItineraryRequest request) {
+        if (request.getStartDate() != null && request.getEndDate() != null
+                && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate must be on/after startDate");
         }
-        return breakdown;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.AutomatedTravelApp.travel.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalTime;
+
+/** Body of POST /api/itineraries/{id}/days/{dayNumber}/activities. */
+@Data
+public class ActivityRequest {
+    @NotBlank(message = "name is required")
+    @Size(max = 160)
+    private String name;
+
+    @Size(max = 160)
+    private String location;
+
+    @PositiveOrZero
+    private Double price;
+
+    @Size(min = 3, max = 3)
+    private String currency;
+
+    private LocalTime startTime;
+
+    @PositiveOrZero
+    private Integer durationMinutes;
+
+    @Size(max = 1000)
+    private String notes;
+
+    /** 1-based position within the day; null or past the end appends. */
+    @Min(1)
+    private Integer position;
+}
@@ -2,6 +2,8 @@ package com.AutomatedTravelApp.travel.dto;
 
 import lombok.*;
 
+import java.time.Instant;
+
 @Data @AllArgsConstructor @NoArgsConstructor @Builder
 public class AdminSummary {
     private long totalUsers;
@@ -9,5 +11,6 @@ public class AdminSummary {
     private long totalErrors;
     private int destinations;     
     private long logEntriesLast24h;
+    private Instant asOf;         // when these numbers were computed
 }
 
@@ -0,0 +1,35 @@
+package com.AutomatedTravelApp.travel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Snapshot of a bulk generation batch, with one status entry per submitted request. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data @AllArgsConstructor @NoArgsConstructor @Builder(toBuilder = true)
+public class BatchGenerationJob {
+
+    private String batchId;
+    private GenerationJob.Status status;
+    private int total;
+    private int unique;
+    private int done;
+    private int failed;
+    private List<Item> items;
+    private Instant submittedAt;
+    private Instant completedAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Data @AllArgsConstructor @NoArgsConstructor @Builder(toBuilder = true)
+    public static class Item {
+        private int index;
+        private GenerationJob.Status status;
+        private Long itineraryId;
+        private String message;
+        private String error;
+        /** Index of the identical earlier request whose result this item shares. */
+        private Integer duplicateOf;
+    }
+}
@@ -66,12 +66,13 @@ public class GenerateItineraryResponse {
         private Double rating;
         private Integer durationMinutes;
         private Integer dayPlanned;
+        private Long id;
     }
     @Data @AllArgsConstructor @NoArgsConstructor
     public static class ItineraryDayDto {
         private Integer dayNumber;
         private Boolean restDay;
         private String notes;
-        
+        private Long id;
     }
 }
@@ -0,0 +1,21 @@
+package com.AutomatedTravelApp.travel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.Instant;
+
+/** Snapshot of an async itinerary generation job, as returned to polling clients. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data @AllArgsConstructor @NoArgsConstructor @Builder(toBuilder = true)
+public class GenerationJob {
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private String jobId;
+    private Status status;
+    private Long itineraryId;
+    private GenerateItineraryResponse result;
+    private String error;
+    private Instant submittedAt;
+    private Instant completedAt;
+}
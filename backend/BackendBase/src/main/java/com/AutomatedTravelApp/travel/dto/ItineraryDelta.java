@@ -0,0 +1,41 @@
+package com.AutomatedTravelApp.travel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What an incremental edit changed, instead of the whole itinerary: the new
+ * activity order of each touched day, the new day order when days moved, and
+ * the trip's end date when days were added or removed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItineraryDelta {
+    private Long itineraryId;
+    private String message;
+    /** The activity that was added or moved. */
+    private Long activityId;
+    /** The day that was added or moved. */
+    private Long dayId;
+    private List<DayActivities> days;
+    /** Day ids in day-number order. */
+    private List<Long> dayOrder;
+    private LocalDate endDate;
+
+    @Data @AllArgsConstructor @NoArgsConstructor
+    public static class DayActivities {
+        private Long dayId;
+        private Integer dayNumber;
+        /** Activity ids in position order. */
+        private List<Long> activityIds;
+    }
+}
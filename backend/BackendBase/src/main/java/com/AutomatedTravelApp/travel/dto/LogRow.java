@@ -5,6 +5,7 @@ import java.time.Instant;
 
 @Data @AllArgsConstructor @NoArgsConstructor @Builder
 public class LogRow {
+    private Long id;          // pass as ?before= to fetch the next page
     private Instant timestamp;
     private String level;     // Info/Warning/Error
     private String message;
@@ -0,0 +1,18 @@
+package com.AutomatedTravelApp.travel.dto;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+/**
+ * Target of an add/move: the day number (for days, and the destination day of
+ * an activity) and the 1-based position within that day (activities only).
+ * Null or out-of-range values mean "at the end".
+ */
+@Data
+public class MoveRequest {
+    @Min(1)
+    private Integer dayNumber;
+
+    @Min(1)
+    private Integer position;
+}
@@ -0,0 +1,15 @@
+package com.AutomatedTravelApp.travel.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/** Body of POST /api/itineraries/{id}/days/regenerate: the day numbers to re-plan. */
+@Data
+public class RegenerateDaysRequest {
+    @NotEmpty(message = "dayNumbers is required")
+    private List<@NotNull @Min(1) Integer> dayNumbers;
+}
@@ -6,6 +6,6 @@ import lombok.*;
 public class ServiceStatus {
     private String service;     // API Gateway, Database, Email, File Storage...
     private String status;      
-    private long responseMs;    // fake or measured
+    private long responseMs;    // recent p95, 0 when there is no recent data
 }
 
@@ -12,7 +12,11 @@ import java.time.LocalTime;
 @Table(name = "activities")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Activity extends BaseEntity {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (not IDENTITY) so inserts can be JDBC-batched. Reuses the
+    // sequence Postgres created for the old identity column.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_seq")
+    @SequenceGenerator(name = "activity_seq", sequenceName = "activities_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
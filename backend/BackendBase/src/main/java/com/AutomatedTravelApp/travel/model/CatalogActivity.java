@@ -0,0 +1,51 @@
+package com.AutomatedTravelApp.travel.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * A bookable activity at a destination, used by the local itinerary engine.
+ * score is the activity's intensity on the prototype's 1-10 scale (3 = relaxed,
+ * 8+ = strenuous) and is matched against the traveller's pace/budget score.
+ */
+@Entity
+@Table(name = "activity_catalog", indexes = {
+        @Index(name = "ix_activity_catalog_destination", columnList = "destination")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CatalogActivity extends BaseEntity {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(nullable = false, length = 120)
+    private String destination;
+
+    @NotBlank
+    @Column(nullable = false, length = 160)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TravelInterest interest;
+
+    /** Preferred start time; the engine never schedules the activity earlier. */
+    private LocalTime startTime;
+
+    @PositiveOrZero
+    @Column(nullable = false)
+    private int durationMinutes;
+
+    @PositiveOrZero
+    @Column(precision = 12, scale = 3)
+    @Builder.Default
+    private BigDecimal costAmount = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private int score;
+}
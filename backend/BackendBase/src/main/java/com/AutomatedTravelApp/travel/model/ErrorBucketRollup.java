@@ -0,0 +1,32 @@
+package com.AutomatedTravelApp.travel.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Running per-message totals of ERROR log entries, maintained by LogIngestor as
+ * it flushes, so the error monitor never has to GROUP BY over log_entries.
+ */
+@Entity
+@Table(name = "error_buckets")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ErrorBucketRollup {
+    // SHA-256 of the message: messages are up to 1000 chars, too long for a good key.
+    @Id
+    @Column(name = "message_hash", length = 64)
+    private String messageHash;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    @Column(name = "occurrences", nullable = false)
+    private long count;
+
+    @Column(name = "first_occurred", nullable = false)
+    private Instant firstOccurred;
+
+    @Column(name = "last_occurred", nullable = false)
+    private Instant lastOccurred;
+}
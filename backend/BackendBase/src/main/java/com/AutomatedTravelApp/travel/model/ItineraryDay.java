@@ -13,7 +13,11 @@ import java.util.List;
 })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class ItineraryDay extends BaseEntity {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (not IDENTITY) so inserts can be JDBC-batched. Reuses the
+    // sequence Postgres created for the old identity column.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itinerary_day_seq")
+    @SequenceGenerator(name = "itinerary_day_seq", sequenceName = "itinerary_days_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -6,7 +6,11 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name="log_entries")
+@Table(name="log_entries", indexes = {
+        @Index(name = "ix_log_entries_created_at", columnList = "created_at"),
+        @Index(name = "ix_log_entries_level_created_at", columnList = "level, created_at"),
+        @Index(name = "ix_log_entries_source_created_at", columnList = "source, created_at")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class LogEntry {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,14 +3,47 @@ package com.AutomatedTravelApp.travel.repository;
 import com.AutomatedTravelApp.travel.model.Activity;
 import com.AutomatedTravelApp.travel.model.ItineraryDay;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
     List<Activity> findByItineraryDayOrderByPosition(ItineraryDay day);
 
     @Query("select a from Activity a where a.itineraryDay.trip.id = :tripId order by a.itineraryDay.dayNumber asc, a.position asc")
     List<Activity> findByItineraryDayTripId(@Param("tripId") Long tripId);
+
+    @Query("select a from Activity a join fetch a.itineraryDay d where a.id = :id and d.trip.id = :tripId")
+    Optional<Activity> findInTrip(@Param("tripId") Long tripId, @Param("id") Long id);
+
+    @Query("select a.id from Activity a where a.itineraryDay.id = :dayId order by a.position asc")
+    List<Long> findIdsByDayId(@Param("dayId") Long dayId);
+
+    @Query("select count(a) from Activity a where a.itineraryDay.id = :dayId")
+    int countByDayId(@Param("dayId") Long dayId);
+
+    /** Moves every activity of the day in positions [from, to] by `by`, in one UPDATE. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+      update Activity a set a.position = a.position + :by
+      where a.itineraryDay.id = :dayId and a.position between :from and :to
+    """)
+    int shiftPositions(@Param("dayId") Long dayId, @Param("from") int from, @Param("to") int to,
+                       @Param("by") int by);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Activity a set a.itineraryDay = :day, a.position = :position where a.id = :id")
+    int moveTo(@Param("id") Long id, @Param("day") ItineraryDay day, @Param("position") int position);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Activity a where a.itineraryDay.id = :dayId")
+    int deleteByDayId(@Param("dayId") Long dayId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Activity a where a.itineraryDay.id in :dayIds")
+    int deleteByDayIdIn(@Param("dayIds") Collection<Long> dayIds);
 }
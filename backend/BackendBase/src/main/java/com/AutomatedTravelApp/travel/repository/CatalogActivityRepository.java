@@ -0,0 +1,12 @@
+package com.AutomatedTravelApp.travel.repository;
+
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CatalogActivityRepository extends JpaRepository<CatalogActivity, Long> {
+    List<CatalogActivity> findByDestinationIgnoreCaseOrderByIdAsc(String destination);
+
+    boolean existsByDestinationIgnoreCase(String destination);
+}
@@ -0,0 +1,25 @@
+package com.AutomatedTravelApp.travel.repository;
+
+import com.AutomatedTravelApp.travel.model.ErrorBucketRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ErrorBucketRollupRepository extends JpaRepository<ErrorBucketRollup, String> {
+
+    List<ErrorBucketRollup> findTop200ByOrderByCountDesc();
+
+    @Query("select coalesce(sum(b.count), 0) from ErrorBucketRollup b")
+    long totalCount();
+
+    @Modifying
+    @Query("update ErrorBucketRollup b set b.count = b.count - 1 where b.messageHash = :hash")
+    int decrement(@Param("hash") String messageHash);
+
+    @Modifying
+    @Query("delete from ErrorBucketRollup b where b.messageHash = :hash and b.count <= 0")
+    int deleteIfEmpty(@Param("hash") String messageHash);
+}
@@ -3,14 +3,47 @@ package com.AutomatedTravelApp.travel.repository;
 import com.AutomatedTravelApp.travel.model.ItineraryDay;
 import com.AutomatedTravelApp.travel.model.Trip;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItineraryDayRepository extends JpaRepository<ItineraryDay, Long> {
     List<ItineraryDay> findByTripOrderByDayNumberAsc(Trip trip);
 
     @Query("select d from ItineraryDay d where d.trip.id = :tripId order by d.dayNumber asc")
     List<ItineraryDay> findByTripId(@Param("tripId") Long tripId);
+
+    @Query("""
+      select distinct d from ItineraryDay d
+      left join fetch d.activities a
+      where d.trip.id = :tripId
+      order by d.dayNumber asc, a.position asc
+    """)
+    List<ItineraryDay> findWithActivitiesByTripId(@Param("tripId") Long tripId);
+
+    @Query("select d from ItineraryDay d where d.trip.id = :tripId and d.dayNumber = :dayNumber")
+    Optional<ItineraryDay> findByTripIdAndDayNumber(@Param("tripId") Long tripId, @Param("dayNumber") int dayNumber);
+
+    @Query("select d.id from ItineraryDay d where d.trip.id = :tripId order by d.dayNumber asc")
+    List<Long> findIdsByTripId(@Param("tripId") Long tripId);
+
+    /**
+     * Moves the trip's days numbered [from, to] by `by`, in one UPDATE. uk_trip_day
+     * is checked row by row on Postgres, so a shift onto occupied numbers has to
+     * go through a free range first (see ItineraryEditService).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+      update ItineraryDay d set d.dayNumber = d.dayNumber + :by
+      where d.trip.id = :tripId and d.dayNumber between :from and :to
+    """)
+    int shiftDayNumbers(@Param("tripId") Long tripId, @Param("from") int from, @Param("to") int to,
+                        @Param("by") int by);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ItineraryDay d where d.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
 }
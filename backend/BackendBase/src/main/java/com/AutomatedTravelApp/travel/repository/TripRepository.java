@@ -2,13 +2,37 @@ package com.AutomatedTravelApp.travel.repository;
 
 import com.AutomatedTravelApp.travel.model.Trip;
 import com.AutomatedTravelApp.travel.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface TripRepository extends JpaRepository<Trip, Long> {
     List<Trip> findByUser(User user);
     List<Trip> findByDestinationIgnoreCase(String destination);
     List<Trip> findByStartDateBetween(LocalDate from, LocalDate to);
+
+    // Trip with its budget breakdown and interests in one query; days come from ItineraryDayRepository.
+    @EntityGraph(attributePaths = {"budgetBreakdown", "interests"})
+    @Query("select t from Trip t where t.id = :id")
+    Optional<Trip> findWithDetailsById(@Param("id") Long id);
+
+    // [category, amount] rows of the trip's budget breakdown, without loading the trip.
+    @Query("select key(b), value(b) from Trip t join t.budgetBreakdown b where t.id = :id")
+    List<Object[]> findBudgetBreakdown(@Param("id") Long id);
+
+    // Case- and whitespace-insensitive, computed in the database.
+    @Query("select count(distinct lower(trim(t.destination))) from Trip t where trim(t.destination) <> ''")
+    long countDistinctDestinations();
+
+    // Most-planned destinations first, grouped case- and whitespace-insensitively (one spelling per group).
+    @Query("""
+            select min(trim(t.destination)) from Trip t where trim(t.destination) <> ''
+            group by lower(trim(t.destination)) order by count(t) desc""")
+    List<String> findTopDestinations(Pageable pageable);
 }
@@ -1,10 +1,33 @@
 package com.AutomatedTravelApp.travel.repository;
 
+import com.AutomatedTravelApp.travel.dto.UserRow;
 import com.AutomatedTravelApp.travel.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    long countByBannedFalse();
+
+    // Admin listing: projected straight into UserRow (no entities, no password hashes),
+    // keyset-paginated on id. pattern is a lower-case LIKE pattern or null for no search.
+    @Query("""
+        select new com.AutomatedTravelApp.travel.dto.UserRow(u.id, u.name, u.email,
+               case when u.banned = true then 'BANNED' else 'ACTIVE' end)
+        from User u
+        where u.id > :afterId
+          and (:pattern is null or lower(u.email) like :pattern or lower(u.name) like :pattern)
+          and (:banned is null or u.banned = :banned)
+        order by u.id asc
+        """)
+    List<UserRow> findRows(@Param("afterId") long afterId,
+                           @Param("pattern") String pattern,
+                           @Param("banned") Boolean banned,
+                           Pageable page);
 }
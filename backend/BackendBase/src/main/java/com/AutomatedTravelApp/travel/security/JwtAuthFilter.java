@@ -1,6 +1,5 @@
 package com.AutomatedTravelApp.travel.security;
 
-import com.AutomatedTravelApp.travel.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,11 +18,11 @@ import java.util.List;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthFilter(JwtService jwtService, PrincipalCache principalCache) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -33,16 +32,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String header = request.getHeader("Authorization");
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
-            if (jwtService.isValid(token)) {
-                String email = jwtService.extractEmail(token);
-                userRepository.findByEmail(email).ifPresent(user -> {
-                    var auth = new UsernamePasswordAuthenticationToken(
-                            user.getEmail(), null,
-                            List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                });
-            }
+            jwtService.verifiedEmail(token)
+                    .flatMap(principalCache::get)
+                    .filter(principal -> !principal.banned())
+                    .ifPresent(principal -> {
+                        var auth = new UsernamePasswordAuthenticationToken(
+                                principal.email(), null,
+                                List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name())));
+                        SecurityContextHolder.getContext().setAuthentication(auth);
+                    });
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,67 @@
 package com.AutomatedTravelApp.travel.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies JWTs. Verified tokens are cached by SHA-256 hash until
+ * their own expiry, so a client reusing its token pays for the signature check
+ * once rather than on every request. Invalid tokens are never cached.
+ */
 @Component
 public class JwtService {
     private final SecretKey key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+
+    private record VerifiedToken(String email, long expiresAtMillis) {}
 
     public JwtService(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms:86400000}") long expirationMs) {
+            @Value("${app.jwt.expiration-ms:86400000}") long expirationMs,
+            @Value("${app.jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+                        long remainingMs = token.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String email, String role) {
@@ -31,17 +75,41 @@ public class JwtService {
                 .compact();
     }
 
+    /** The token's subject if its signature and expiry check out, else empty. */
+    public Optional<String> verifiedEmail(String token) {
+        String hash = sha256(token);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            // The cache may still hold an entry for a few ms past its expiry.
+            return cached.expiresAtMillis() > System.currentTimeMillis()
+                    ? Optional.ofNullable(cached.email())
+                    : Optional.empty();
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verified.put(hash, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+            }
+            return Optional.ofNullable(claims.getSubject());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parser().verifyWith(key).build()
-                .parseSignedClaims(token).getPayload().getSubject();
+        return parser.parseSignedClaims(token).getPayload().getSubject();
     }
 
     public boolean isValid(String token) {
+        return verifiedEmail(token).isPresent();
+    }
+
+    private static String sha256(String s) {
         try {
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.AutomatedTravelApp.travel.security;
+
+import com.AutomatedTravelApp.travel.model.Role;
+import com.AutomatedTravelApp.travel.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of the user fields authentication needs (role, banned),
+ * keyed by email, so JwtAuthFilter doesn't query users on every request.
+ * Anything that changes a user's role or ban status must call evict; the TTL
+ * bounds staleness for changes made elsewhere (e.g. directly in the database).
+ */
+@Component
+public class PrincipalCache {
+
+    public record Principal(String email, Role role, boolean banned) {}
+
+    private final UserRepository userRepository;
+    private final Cache<String, Principal> cache;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /** The principal for this email, or empty if no such user exists (not cached). */
+    public Optional<Principal> get(String email) {
+        return Optional.ofNullable(cache.get(email, e -> userRepository.findByEmail(e)
+                .map(u -> new Principal(u.getEmail(), u.getRole(), u.isBanned()))
+                .orElse(null)));
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+}
@@ -1,16 +1,19 @@
 package com.AutomatedTravelApp.travel.service;
 
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
 import com.AutomatedTravelApp.travel.dto.*;
 import com.AutomatedTravelApp.travel.model.LogEntry;
 import com.AutomatedTravelApp.travel.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,16 +22,25 @@ public class AdminService {
     private final UserRepository userRepository;
     private final TripRepository tripRepository;
     private final LogEntryRepository logEntryRepository;
+    private final AdminSummaryCache summaryCache;
+    private final LogIngestor logIngestor;
+    private final ErrorBucketRollupRepository errorBucketRepository;
+    private final GenerationMetrics generationMetrics;
 
-    @Transactional(readOnly = true)
+    private static final int MAX_LOG_PAGE = 200;
+    private static final int MAX_USER_PAGE = 200;
+
+    // Served from a snapshot refreshed at most every app.admin.summary.max-staleness-seconds.
     public AdminSummary summary() {
+        return summaryCache.get(this::computeSummary);
+    }
+
+    // Aggregate queries only; each repository call runs in its own read-only transaction.
+    private AdminSummary computeSummary() {
         long totalUsers = userRepository.count();
-        long activeUsers = totalUsers; // adjust if you have a status field
-        long totalErrors = logEntryRepository.countErrors();
-        int destinations = (int)tripRepository.findAll().stream()
-                .map(t -> t.getDestination()==null? "" : t.getDestination().toLowerCase())
-                .filter(s -> !s.isBlank())
-                .collect(Collectors.toSet()).size();
+        long activeUsers = userRepository.countByBannedFalse();
+        long totalErrors = errorBucketRepository.totalCount();
+        int destinations = (int) tripRepository.countDistinctDestinations();
         long last24h = logEntryRepository.countByCreatedAtAfter(Instant.now().minus(1, ChronoUnit.DAYS));
 
         return AdminSummary.builder()
@@ -37,14 +49,50 @@ public class AdminService {
                 .totalErrors(totalErrors)
                 .destinations(destinations)
                 .logEntriesLast24h(last24h)
+                .asOf(Instant.now())
                 .build();
     }
 
     @Transactional(readOnly = true)
     public List<LogRow> recentLogs() {
-        return logEntryRepository.findTop200ByOrderByCreatedAtDesc()
+        return logs(null, MAX_LOG_PAGE, null, null);
+    }
+
+    /**
+     * One page of logs, newest first, optionally filtered by level and/or source.
+     * Keyset-paginated: pass the id of the last row of the previous page as before,
+     * so every page costs the same regardless of how deep it is.
+     */
+    @Transactional(readOnly = true)
+    public List<LogRow> logs(Long before, Integer limit, String level, String source) {
+        int size = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(MAX_LOG_PAGE), MAX_LOG_PAGE));
+
+        Specification<LogEntry> spec = (root, query, cb) -> cb.conjunction();
+        if (level != null && !level.isBlank()) {
+            String normalized = level.trim().toUpperCase(Locale.ROOT);
+            String stored = normalized.equals("WARN") ? "WARNING" : normalized;
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("level"), stored));
+        }
+        if (source != null && !source.isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("source"), source.trim()));
+        }
+        if (before != null) {
+            LogEntry cursor = logEntryRepository.findById(before)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown log id: " + before));
+            // (createdAt, id) < (cursor.createdAt, cursor.id)
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                    cb.and(cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                            cb.lessThan(root.get("id"), cursor.getId()))));
+        }
+
+        return logEntryRepository.findBy(spec, q -> q
+                        .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                        .limit(size)
+                        .all())
                 .stream()
                 .map(le -> LogRow.builder()
+                        .id(le.getId())
                         .timestamp(le.getCreatedAt())
                         .level(cap(le.getLevel()))
                         .message(le.getMessage())
@@ -53,28 +101,50 @@ public class AdminService {
                 .toList();
     }
 
+    /**
+     * One page of users ordered by id, optionally searched by email/name (case-insensitive
+     * substring) and filtered by status. Pass the last row's id as after for the next page.
+     */
+    @Transactional(readOnly = true)
+    public List<UserRow> users(Long after, Integer limit, String q, String status) {
+        int size = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(MAX_USER_PAGE), MAX_USER_PAGE));
+        String pattern = (q == null || q.isBlank()) ? null
+                : "%" + q.trim().toLowerCase(Locale.ROOT) + "%";
+        Boolean banned = null;
+        if (status != null && !status.isBlank()) {
+            banned = switch (status.trim().toUpperCase(Locale.ROOT)) {
+                case "BANNED" -> true;
+                case "ACTIVE" -> false;
+                default -> throw new IllegalArgumentException("Unknown status: " + status);
+            };
+        }
+        return userRepository.findRows(Optional.ofNullable(after).orElse(0L), pattern, banned,
+                PageRequest.of(0, size));
+    }
+
     @Transactional(readOnly = true)
     public List<ErrorBucket> errorBuckets() {
-        return logEntryRepository.bucketizeErrors().stream()
-                .map(arr -> ErrorBucket.builder()
-                        .error((String)arr[0])
-                        .count((Long)arr[1])
-                        .firstOccurred((Instant)arr[2])
-                        .lastOccurred((Instant)arr[3])
+        // Reads the rollup LogIngestor maintains instead of grouping log_entries.
+        return errorBucketRepository.findTop200ByOrderByCountDesc().stream()
+                .map(b -> ErrorBucket.builder()
+                        .error(b.getMessage())
+                        .count(b.getCount())
+                        .firstOccurred(b.getFirstOccurred())
+                        .lastOccurred(b.getLastOccurred())
                         .build())
                 .toList();
     }
 
-    @Transactional
+    // Queued for LogIngestor's next batch flush; no database round trip here.
     public LogRow addLog(String level, String message, String source, String userEmail) {
-        LogEntry saved = logEntryRepository.save(
-                LogEntry.builder()
-                        .level(level==null? "INFO" : level.toUpperCase())
-                        .message(message==null? "" : message)
-                        .source(source==null? "System" : source)
-                        .userEmail(userEmail)
-                        .build()
-        );
+        LogEntry saved = LogIngestor.entry(
+                level==null? "INFO" : level.toUpperCase(),
+                message==null? "" : message,
+                source==null? "System" : source,
+                userEmail);
+        if (!logIngestor.submit(saved)) {
+            throw new IllegalStateException("Log buffer is full, entry dropped");
+        }
         return LogRow.builder()
                 .timestamp(saved.getCreatedAt())
                 .level(cap(saved.getLevel()))
@@ -85,21 +155,36 @@ public class AdminService {
 
     @Transactional
     public void deleteLog(Long id) {
-        logEntryRepository.deleteById(id);
+        logEntryRepository.findById(id).ifPresent(le -> {
+            if ("ERROR".equals(le.getLevel())) {
+                // Keep the rollup's count in step; first/last occurrence are left as they were.
+                String hash = LogIngestor.messageHash(le.getMessage());
+                errorBucketRepository.decrement(hash);
+                errorBucketRepository.deleteIfEmpty(hash);
+            }
+            logEntryRepository.delete(le);
+        });
     }
 
-    // “Service Destinations” – keep it simple (mock or measure)
-    @Transactional(readOnly = true)
+    // Recent p95 of each pipeline stage, from the same timers /actuator/prometheus exports.
     public List<ServiceStatus> serviceStatuses() {
-        // You can measure DB ping or call /actuator/health here.
         return List.of(
-            ServiceStatus.builder().service("API Gateway").status("Healthy").responseMs(45).build(),
-            ServiceStatus.builder().service("Database").status("Healthy").responseMs(32).build(),
-            ServiceStatus.builder().service("Email Service").status("Healthy").responseMs(78).build(),
-            ServiceStatus.builder().service("File Storage").status("Healthy").responseMs(70).build()
+            status("Itinerary Generation", GenerationMetrics.Stage.TOTAL),
+            status("Gemini API", GenerationMetrics.Stage.GEMINI),
+            status("Database", GenerationMetrics.Stage.PERSIST),
+            status("AI Response Parsing", GenerationMetrics.Stage.PARSE)
         );
     }
 
+    private ServiceStatus status(String service, GenerationMetrics.Stage stage) {
+        long p95 = generationMetrics.p95Millis(stage);
+        return ServiceStatus.builder()
+                .service(service)
+                .status(p95 < 0 ? "No recent data" : "Healthy")
+                .responseMs(Math.max(0, p95))
+                .build();
+    }
+
     private String cap(String s) {
         if (s==null || s.isBlank()) return s;
         String t = s.toLowerCase();
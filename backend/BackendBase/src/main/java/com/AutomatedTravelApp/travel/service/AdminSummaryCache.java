@@ -0,0 +1,57 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.dto.AdminSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Holds the last computed admin dashboard summary and recomputes it at most once
+ * per app.admin.summary.max-staleness-seconds. Only one thread recomputes at a
+ * time; while it does, other callers get the previous snapshot, so the numbers
+ * are never older than the staleness bound plus one refresh.
+ */
+@Component
+public class AdminSummaryCache {
+
+    private record Snapshot(AdminSummary summary, long computedAtNanos) {}
+
+    private final long maxStalenessNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public AdminSummaryCache(@Value("${app.admin.summary.max-staleness-seconds:30}") long maxStalenessSeconds) {
+        this.maxStalenessNanos = Duration.ofSeconds(maxStalenessSeconds).toNanos();
+    }
+
+    public AdminSummary get(Supplier<AdminSummary> compute) {
+        Snapshot current = snapshot;
+        if (current != null && isFresh(current)) {
+            return current.summary();
+        }
+        if (current != null && !refreshLock.tryLock()) {
+            return current.summary(); // another request is already refreshing it
+        }
+        if (current == null) {
+            refreshLock.lock();
+        }
+        try {
+            current = snapshot;
+            if (current != null && isFresh(current)) {
+                return current.summary();
+            }
+            AdminSummary summary = compute.get();
+            snapshot = new Snapshot(summary, System.nanoTime());
+            return summary;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isFresh(Snapshot s) {
+        return System.nanoTime() - s.computedAtNanos() < maxStalenessNanos;
+    }
+}
@@ -0,0 +1,254 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.ai.AiCallContext;
+import com.AutomatedTravelApp.travel.ai.TokenBucket;
+import com.AutomatedTravelApp.travel.dto.BatchGenerationJob;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.dto.GenerationJob;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bulk itinerary generation. Identical requests in a batch are generated once
+ * and share the result. The remaining items run on the small aiBatchExecutor
+ * (app.ai.batch.max-concurrency) and each takes a token from a rate budget
+ * (app.ai.batch.rate-per-minute) before calling the AI, so a large batch can
+ * use spare Gemini quota without crowding out interactive generate calls. The
+ * AI calls themselves are scheduled at BATCH priority.
+ *
+ * Planned itineraries are persisted in groups of app.ai.batch.persist-size,
+ * each group in one transaction. Batches are kept for polling like async jobs.
+ */
+@Slf4j
+@Service
+public class BatchGenerationService {
+
+    private final ItineraryService itineraryService;
+    private final TaskExecutor executor;
+    private final TokenBucket rateBudget;
+    private final int maxItems;
+    private final int persistSize;
+    private final Cache<String, Batch> batches;
+
+    public BatchGenerationService(ItineraryService itineraryService,
+                                  @Qualifier("aiBatchExecutor") TaskExecutor executor,
+                                  @Value("${app.ai.batch.rate-per-minute:30}") double ratePerMinute,
+                                  @Value("${app.ai.batch.burst:5}") int burst,
+                                  @Value("${app.ai.batch.max-items:50}") int maxItems,
+                                  @Value("${app.ai.batch.persist-size:10}") int persistSize,
+                                  @Value("${app.itinerary.jobs.ttl-minutes:30}") long ttlMinutes) {
+        this.itineraryService = itineraryService;
+        this.executor = executor;
+        this.rateBudget = new TokenBucket(ratePerMinute, burst);
+        this.maxItems = maxItems;
+        this.persistSize = Math.max(1, persistSize);
+        this.batches = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Queues a batch and returns its initial snapshot. Throws
+     * IllegalArgumentException if the batch is empty or larger than
+     * app.ai.batch.max-items. Items the executor rejects are marked FAILED.
+     */
+    public BatchGenerationJob submit(List<GenerateItineraryRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one request is required");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("A batch can hold at most " + maxItems + " requests");
+        }
+
+        Map<GenerateItineraryRequest, Integer> firstIndex = new HashMap<>();
+        Integer[] duplicateOf = new Integer[requests.size()];
+        List<Integer> unique = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Integer first = firstIndex.putIfAbsent(requests.get(i), i);
+            if (first != null) {
+                duplicateOf[i] = first;
+            } else {
+                unique.add(i);
+            }
+        }
+
+        Batch batch = new Batch(UUID.randomUUID().toString(), duplicateOf, unique.size());
+        batches.put(batch.id, batch);
+        for (int index : unique) {
+            GenerateItineraryRequest req = requests.get(index);
+            try {
+                executor.execute(() -> run(batch, index, req));
+            } catch (RejectedExecutionException e) {
+                finishPlanning(batch, batch.fail(index, "Batch queue is full"));
+            }
+        }
+        return batch.snapshot();
+    }
+
+    public Optional<BatchGenerationJob> find(String batchId) {
+        return Optional.ofNullable(batches.getIfPresent(batchId)).map(Batch::snapshot);
+    }
+
+    private void run(Batch batch, int index, GenerateItineraryRequest req) {
+        batch.start(index);
+        List<Ready> ready;
+        try {
+            rateBudget.acquire();
+            // Same user as the submitter, but queued behind their interactive calls.
+            ItineraryService.Planned plan = AiCallContext.current()
+                    .withPriority(AiCallContext.Priority.BATCH)
+                    .call(() -> itineraryService.plan(req));
+            ready = batch.planned(new Ready(index, plan), persistSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ready = batch.fail(index, "Interrupted");
+        } catch (Exception e) {
+            log.warn("Batch {} item {} failed: {}", batch.id, index, e.getMessage());
+            ready = batch.fail(index, e.getMessage());
+        }
+        finishPlanning(batch, ready);
+    }
+
+    private void finishPlanning(Batch batch, List<Ready> ready) {
+        if (ready.isEmpty()) return;
+        try {
+            List<GenerateItineraryResponse> saved = itineraryService.persistAll(
+                    ready.stream().map(Ready::plan).toList());
+            for (int i = 0; i < ready.size(); i++) {
+                batch.done(ready.get(i).index(), saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            // One bad plan shouldn't sink the group: retry them one by one.
+            log.warn("Batch {} group persist failed, retrying items individually: {}", batch.id, e.getMessage());
+            ready.forEach(r -> persistOne(batch, r));
+        }
+    }
+
+    private void persistOne(Batch batch, Ready ready) {
+        try {
+            batch.done(ready.index(), itineraryService.persistAll(List.of(ready.plan())).get(0));
+        } catch (RuntimeException e) {
+            log.warn("Batch {} item {} could not be saved: {}", batch.id, ready.index(), e.getMessage());
+            try {
+                itineraryService.discard(ready.plan());
+            } catch (RuntimeException ignored) {
+                // Nothing more to do; the item is reported as failed either way.
+            }
+            batch.failed(ready.index(), e.getMessage());
+        }
+    }
+
+    private record Ready(int index, ItineraryService.Planned plan) {}
+
+    /** Mutable batch state; every access goes through its monitor. */
+    private static final class Batch {
+        final String id;
+        final Instant submittedAt = Instant.now();
+        final Integer[] duplicateOf;
+        final BatchGenerationJob.Item[] items;
+        final List<Ready> pending = new ArrayList<>();
+        final int unique;
+        int planning;
+        int unfinished;
+        Instant completedAt;
+
+        Batch(String id, Integer[] duplicateOf, int unique) {
+            this.id = id;
+            this.duplicateOf = duplicateOf;
+            this.items = new BatchGenerationJob.Item[duplicateOf.length];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = BatchGenerationJob.Item.builder().index(i).status(GenerationJob.Status.QUEUED).build();
+            }
+            this.unique = unique;
+            this.planning = unique;
+            this.unfinished = unique;
+        }
+
+        synchronized void start(int index) {
+            items[index].setStatus(GenerationJob.Status.RUNNING);
+        }
+
+        /** Queues a plan for persistence; returns a group to persist once one is full or planning is over. */
+        synchronized List<Ready> planned(Ready ready, int groupSize) {
+            pending.add(ready);
+            planning--;
+            return drain(groupSize);
+        }
+
+        synchronized List<Ready> fail(int index, String error) {
+            failed(index, error);
+            planning--;
+            return drain(Integer.MAX_VALUE);
+        }
+
+        synchronized void done(int index, GenerateItineraryResponse saved) {
+            items[index].setStatus(GenerationJob.Status.DONE);
+            items[index].setItineraryId(saved.getItineraryId());
+            items[index].setMessage(saved.getMessage());
+            finish();
+        }
+
+        synchronized void failed(int index, String error) {
+            items[index].setStatus(GenerationJob.Status.FAILED);
+            items[index].setError(error);
+            finish();
+        }
+
+        private void finish() {
+            if (--unfinished == 0) completedAt = Instant.now();
+        }
+
+        private List<Ready> drain(int groupSize) {
+            if (pending.size() < groupSize && planning > 0) return List.of();
+            List<Ready> group = List.copyOf(pending);
+            pending.clear();
+            return group;
+        }
+
+        synchronized BatchGenerationJob snapshot() {
+            List<BatchGenerationJob.Item> view = new ArrayList<>(items.length);
+            int done = 0, failed = 0;
+            boolean started = false;
+            for (int i = 0; i < items.length; i++) {
+                BatchGenerationJob.Item item = duplicateOf[i] == null
+                        ? items[i].toBuilder().build()
+                        : items[duplicateOf[i]].toBuilder().index(i).duplicateOf(duplicateOf[i]).build();
+                if (item.getStatus() == GenerationJob.Status.DONE) done++;
+                if (item.getStatus() == GenerationJob.Status.FAILED) failed++;
+                if (item.getStatus() != GenerationJob.Status.QUEUED) started = true;
+                view.add(item);
+            }
+            GenerationJob.Status status = completedAt != null ? GenerationJob.Status.DONE
+                    : started ? GenerationJob.Status.RUNNING
+                    : GenerationJob.Status.QUEUED;
+            return BatchGenerationJob.builder()
+                    .batchId(id)
+                    .status(status)
+                    .total(items.length)
+                    .unique(unique)
+                    .done(done)
+                    .failed(failed)
+                    .items(view)
+                    .submittedAt(submittedAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.dto.GenerationJob;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs ItineraryService.generate on the bounded AI executor so the request
+ * thread returns a job id straight away. Finished jobs are kept for
+ * app.itinerary.jobs.ttl-minutes so clients can poll for the result.
+ */
+@Slf4j
+@Service
+public class GenerationJobService {
+
+    private final ItineraryService itineraryService;
+    private final TaskExecutor executor;
+    private final Cache<String, GenerationJob> jobs;
+
+    public GenerationJobService(ItineraryService itineraryService,
+                                @Qualifier("aiTaskExecutor") TaskExecutor executor,
+                                @Value("${app.itinerary.jobs.max-size:10000}") long maxSize,
+                                @Value("${app.itinerary.jobs.ttl-minutes:30}") long ttlMinutes) {
+        this.itineraryService = itineraryService;
+        this.executor = executor;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Queues a generation job. Throws RejectedExecutionException (from the
+     * executor) when the AI pool and its queue are both full.
+     */
+    public GenerationJob submit(GenerateItineraryRequest req) {
+        String jobId = UUID.randomUUID().toString();
+        GenerationJob queued = GenerationJob.builder()
+                .jobId(jobId)
+                .status(GenerationJob.Status.QUEUED)
+                .submittedAt(Instant.now())
+                .build();
+        jobs.put(jobId, queued);
+
+        try {
+            executor.execute(() -> run(queued, req));
+        } catch (RuntimeException e) {
+            jobs.invalidate(jobId);
+            throw e;
+        }
+        return queued;
+    }
+
+    /**
+     * Generates on the AI executor and pushes the result to the emitter as
+     * server-sent events: one "day" event per AI day as it streams in, then a
+     * "complete" event with the persisted itinerary (or an "error" event). A
+     * "reset" event means the days sent so far are void and the fallback's days
+     * follow, numbered from 1 again.
+     * Generation and persistence carry on if the client disconnects.
+     */
+    public void stream(GenerateItineraryRequest req, SseEmitter emitter) {
+        executor.execute(() -> {
+            var connected = new AtomicBoolean(true);
+            try {
+                GenerateItineraryResponse result = itineraryService.generateStreaming(req, new ItineraryService.DayListener() {
+                    @Override
+                    public void day(int dayNumber, AiItineraryJson.AiDay day) {
+                        send(emitter, connected, SseEmitter.event().name("day").id(Integer.toString(dayNumber))
+                                .data(Map.of("dayNumber", dayNumber, "day", day)));
+                    }
+
+                    @Override
+                    public void reset(String reason) {
+                        send(emitter, connected, SseEmitter.event().name("reset").data(Map.of("reason", reason)));
+                    }
+                });
+                send(emitter, connected, SseEmitter.event().name("complete").data(result));
+                emitter.complete();
+            } catch (Exception e) {
+                log.warn("Streaming generation failed: {}", e.getMessage());
+                send(emitter, connected, SseEmitter.event().name("error").data(String.valueOf(e.getMessage())));
+                emitter.complete();
+            }
+        });
+    }
+
+    private static void send(SseEmitter emitter, AtomicBoolean connected, SseEmitter.SseEventBuilder event) {
+        if (!connected.get()) return;
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            connected.set(false);
+        }
+    }
+
+    public Optional<GenerationJob> find(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private void run(GenerationJob queued, GenerateItineraryRequest req) {
+        jobs.put(queued.getJobId(), queued.toBuilder().status(GenerationJob.Status.RUNNING).build());
+        try {
+            GenerateItineraryResponse result = itineraryService.generate(req);
+            jobs.put(queued.getJobId(), queued.toBuilder()
+                    .status(GenerationJob.Status.DONE)
+                    .itineraryId(result.getItineraryId())
+                    .result(result)
+                    .completedAt(Instant.now())
+                    .build());
+        } catch (Exception e) {
+            log.warn("Generation job {} failed: {}", queued.getJobId(), e.getMessage());
+            jobs.put(queued.getJobId(), queued.toBuilder()
+                    .status(GenerationJob.Status.FAILED)
+                    .error(e.getMessage())
+                    .completedAt(Instant.now())
+                    .build());
+        }
+    }
+}
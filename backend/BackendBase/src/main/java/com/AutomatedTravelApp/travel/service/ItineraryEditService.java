@@ -0,0 +1,220 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.dto.ActivityRequest;
+import com.AutomatedTravelApp.travel.dto.ItineraryDelta;
+import com.AutomatedTravelApp.travel.dto.MoveRequest;
+import com.AutomatedTravelApp.travel.model.Activity;
+import com.AutomatedTravelApp.travel.model.ItineraryDay;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.ActivityRepository;
+import com.AutomatedTravelApp.travel.repository.ItineraryDayRepository;
+import com.AutomatedTravelApp.travel.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-item itinerary edits for the drag-and-drop editor: add, move/reorder
+ * and delete one activity or one day. Neighbours are renumbered with range-shift
+ * UPDATEs rather than by loading and rewriting the itinerary, and each call
+ * returns an ItineraryDelta with just the orders it changed.
+ *
+ * A missing trip, day or activity throws IllegalArgumentException. Target
+ * positions past the end (or null) mean "at the end".
+ */
+@Service
+@RequiredArgsConstructor
+public class ItineraryEditService {
+
+    /** Day numbers are parked this far up while a range is shifted, clear of every real day. */
+    private static final int PARK = 100_000;
+
+    private final TripRepository tripRepository;
+    private final ItineraryDayRepository dayRepository;
+    private final ActivityRepository activityRepository;
+    private final ItineraryResponseCache responseCache;
+
+    @Transactional
+    public ItineraryDelta addActivity(Long tripId, int dayNumber, ActivityRequest req) {
+        ItineraryDay day = day(tripId, dayNumber);
+        int count = activityRepository.countByDayId(day.getId());
+        int position = clamp(req.getPosition(), count + 1);
+        if (position <= count) {
+            activityRepository.shiftPositions(day.getId(), position, Integer.MAX_VALUE, 1);
+        }
+
+        Activity activity = Activity.builder()
+                .itineraryDay(dayRepository.getReferenceById(day.getId()))
+                .position(position)
+                .name(req.getName())
+                .location(req.getLocation())
+                .costAmount(req.getPrice() == null ? BigDecimal.ZERO : BigDecimal.valueOf(req.getPrice()))
+                .startTime(req.getStartTime())
+                .durationMinutes(req.getDurationMinutes() == null ? 0 : req.getDurationMinutes())
+                .notes(req.getNotes())
+                .build();
+        if (req.getCurrency() != null) {
+            activity.setCostCurrency(req.getCurrency());
+        }
+        activity = activityRepository.save(activity);
+
+        responseCache.evict(tripId);
+        return activityDelta(tripId, activity.getId(), "Activity added", day);
+    }
+
+    /** Reorders an activity within its day, or moves it to another day when req.dayNumber differs. */
+    @Transactional
+    public ItineraryDelta moveActivity(Long tripId, Long activityId, MoveRequest req) {
+        Activity activity = activity(tripId, activityId);
+        ItineraryDay from = activity.getItineraryDay();
+        int fromPosition = activity.getPosition();
+        ItineraryDay to = (req.getDayNumber() == null || req.getDayNumber() == from.getDayNumber())
+                ? from
+                : day(tripId, req.getDayNumber());
+
+        if (to.getId().equals(from.getId())) {
+            int position = clamp(req.getPosition(), activityRepository.countByDayId(from.getId()));
+            if (position == fromPosition) {
+                return activityDelta(tripId, activityId, "Activity moved", from);
+            }
+            if (position < fromPosition) {
+                activityRepository.shiftPositions(from.getId(), position, fromPosition - 1, 1);
+            } else {
+                activityRepository.shiftPositions(from.getId(), fromPosition + 1, position, -1);
+            }
+            activityRepository.moveTo(activityId, dayRepository.getReferenceById(from.getId()), position);
+            responseCache.evict(tripId);
+            return activityDelta(tripId, activityId, "Activity moved", from);
+        }
+
+        int position = clamp(req.getPosition(), activityRepository.countByDayId(to.getId()) + 1);
+        activityRepository.shiftPositions(from.getId(), fromPosition + 1, Integer.MAX_VALUE, -1);
+        activityRepository.shiftPositions(to.getId(), position, Integer.MAX_VALUE, 1);
+        activityRepository.moveTo(activityId, dayRepository.getReferenceById(to.getId()), position);
+        responseCache.evict(tripId);
+        return activityDelta(tripId, activityId, "Activity moved", from, to);
+    }
+
+    @Transactional
+    public ItineraryDelta deleteActivity(Long tripId, Long activityId) {
+        Activity activity = activity(tripId, activityId);
+        ItineraryDay day = activity.getItineraryDay();
+        int position = activity.getPosition();
+        activityRepository.delete(activity);
+        activityRepository.shiftPositions(day.getId(), position + 1, Integer.MAX_VALUE, -1);
+
+        responseCache.evict(tripId);
+        return activityDelta(tripId, null, "Activity deleted", day);
+    }
+
+    /** Inserts an empty day at req.dayNumber (appends by default) and extends the trip by a day. */
+    @Transactional
+    public ItineraryDelta addDay(Long tripId, MoveRequest req) {
+        trip(tripId);
+        int count = dayRepository.findIdsByTripId(tripId).size();
+        int dayNumber = clamp(req.getDayNumber(), count + 1);
+        shiftDays(tripId, dayNumber, count, 1);
+
+        Trip trip = trip(tripId);
+        trip.setEndDate(trip.getEndDate().plusDays(1));
+        ItineraryDay day = dayRepository.save(ItineraryDay.builder()
+                .trip(trip)
+                .dayNumber(dayNumber)
+                .build());
+
+        responseCache.evict(tripId);
+        return dayDelta(trip, day.getId(), "Day added");
+    }
+
+    @Transactional
+    public ItineraryDelta moveDay(Long tripId, int dayNumber, MoveRequest req) {
+        ItineraryDay day = day(tripId, dayNumber);
+        int count = dayRepository.findIdsByTripId(tripId).size();
+        int target = clamp(req.getDayNumber(), count);
+        if (target != dayNumber) {
+            dayRepository.shiftDayNumbers(tripId, dayNumber, dayNumber, PARK);
+            if (target < dayNumber) {
+                shiftDays(tripId, target, dayNumber - 1, 1);
+            } else {
+                shiftDays(tripId, dayNumber + 1, target, -1);
+            }
+            dayRepository.shiftDayNumbers(tripId, dayNumber + PARK, dayNumber + PARK, target - dayNumber - PARK);
+            responseCache.evict(tripId);
+        }
+        return dayDelta(trip(tripId), day.getId(), "Day moved");
+    }
+
+    /** Deletes a day with its activities, closes the gap and shortens the trip by a day. */
+    @Transactional
+    public ItineraryDelta deleteDay(Long tripId, int dayNumber) {
+        ItineraryDay day = day(tripId, dayNumber);
+        int count = dayRepository.findIdsByTripId(tripId).size();
+        activityRepository.deleteByDayId(day.getId());
+        dayRepository.deleteByIdInBulk(day.getId());
+        shiftDays(tripId, dayNumber + 1, count, -1);
+
+        Trip trip = trip(tripId);
+        if (trip.getEndDate().isAfter(trip.getStartDate())) {
+            trip.setEndDate(trip.getEndDate().minusDays(1));
+        }
+        responseCache.evict(tripId);
+        return dayDelta(trip, null, "Day deleted");
+    }
+
+    /**
+     * Shifts days [from, to] by `by`. uk_trip_day is checked row by row on
+     * Postgres, so the range is parked above every real day number first and
+     * then brought down to its target: two UPDATEs, never a collision.
+     */
+    private void shiftDays(Long tripId, int from, int to, int by) {
+        if (from > to) return;
+        dayRepository.shiftDayNumbers(tripId, from, to, PARK);
+        dayRepository.shiftDayNumbers(tripId, from + PARK, to + PARK, by - PARK);
+    }
+
+    private ItineraryDelta activityDelta(Long tripId, Long activityId, String message, ItineraryDay... days) {
+        return ItineraryDelta.builder()
+                .itineraryId(tripId)
+                .message(message)
+                .activityId(activityId)
+                .days(Arrays.stream(days)
+                        .map(d -> new ItineraryDelta.DayActivities(d.getId(), d.getDayNumber(),
+                                activityRepository.findIdsByDayId(d.getId())))
+                        .toList())
+                .build();
+    }
+
+    private ItineraryDelta dayDelta(Trip trip, Long dayId, String message) {
+        List<Long> dayOrder = dayRepository.findIdsByTripId(trip.getId());
+        return ItineraryDelta.builder()
+                .itineraryId(trip.getId())
+                .message(message)
+                .dayId(dayId)
+                .dayOrder(dayOrder)
+                .endDate(trip.getEndDate())
+                .build();
+    }
+
+    private Trip trip(Long tripId) {
+        return tripRepository.findById(tripId)
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found: " + tripId));
+    }
+
+    private ItineraryDay day(Long tripId, int dayNumber) {
+        return dayRepository.findByTripIdAndDayNumber(tripId, dayNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Day " + dayNumber + " not found in trip " + tripId));
+    }
+
+    private Activity activity(Long tripId, Long activityId) {
+        return activityRepository.findInTrip(tripId, activityId)
+                .orElseThrow(() -> new IllegalArgumentException("Activity not found: " + activityId));
+    }
+
+    private static int clamp(Integer requested, int max) {
+        return requested == null ? max : Math.max(1, Math.min(requested, max));
+    }
+}
@@ -32,7 +32,7 @@ public class ItineraryMapper {
 
         var dayDtos = new ArrayList<GenerateItineraryResponse.ItineraryDayDto>();
         for (var d : days) {
-            dayDtos.add(new GenerateItineraryResponse.ItineraryDayDto(d.getDayNumber(), false, null));
+            dayDtos.add(new GenerateItineraryResponse.ItineraryDayDto(d.getDayNumber(), false, null, d.getId()));
         }
         resp.setItineraryDays(dayDtos);
 
@@ -43,7 +43,8 @@ public class ItineraryMapper {
                     a.getCostAmount() == null ? null : a.getCostAmount().doubleValue(),
                     null,
                     a.getDurationMinutes(),
-                    a.getItineraryDay() != null ? a.getItineraryDay().getDayNumber() : null
+                    a.getItineraryDay() != null ? a.getItineraryDay().getDayNumber() : null,
+                    a.getId()
             ));
         }
         resp.setActivities(actDtos);
@@ -0,0 +1,160 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.ai.LocalItineraryEngine;
+import com.AutomatedTravelApp.travel.ai.PacingRules;
+import com.AutomatedTravelApp.travel.model.Activity;
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import com.AutomatedTravelApp.travel.model.ItineraryDay;
+import com.AutomatedTravelApp.travel.model.Trip;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Rebalances a stored itinerary in-process after its travel style or budget
+ * changed, so the activities fit again without a Gemini call.
+ *
+ * The "activity" share of the budget breakdown is spread over the non-rest days
+ * (whatever a day leaves unspent carries over to the next). Each day is then
+ * filled greedily under its share and the style's PacingRules: first its own
+ * activities in their current order, then the best-ranked catalog activities
+ * not already used in the trip.
+ *
+ * Rest days are only re-paced when the style itself changed: days that are rest
+ * days under the new style are then cleared. The AI and template paths never
+ * left rest days empty, so a budget-only change treats them like any other day.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItineraryReplanner {
+
+    /** Budget breakdown key of the activity share (see ItineraryService.defaultBreakdownFor). */
+    private static final String ACTIVITY_BUDGET = "activity";
+
+    private final LocalItineraryEngine localEngine;
+
+    /** How many of the trip's activities were kept, dropped and added from the catalog. */
+    public record Result(int kept, int dropped, int added) {}
+
+    /**
+     * Re-plans the given days (managed, with their activities loaded) in place:
+     * dropped activities are removed from their day's collection and catalog
+     * picks are appended, so the changes are written when the transaction flushes.
+     * styleChanged clears the new style's rest days (see the class comment).
+     */
+    public Result replan(Trip trip, List<ItineraryDay> days, boolean styleChanged) {
+        PacingRules rules = PacingRules.of(trip.getTravelStyle());
+        int people = Optional.ofNullable(trip.getPeopleCount()).orElse(1);
+        double remaining = Optional.ofNullable(trip.getBudgetBreakdown())
+                .map(b -> b.get(ACTIVITY_BUDGET))
+                .orElse(Double.POSITIVE_INFINITY);
+
+        Set<String> used = new HashSet<>();
+        days.forEach(d -> d.getActivities().forEach(a -> used.add(key(a.getName()))));
+        List<CatalogActivity> pool = new ArrayList<>(localEngine.rankedCatalog(trip, trip.getTravelStyle()));
+        pool.removeIf(c -> used.contains(key(c.getName())));
+
+        List<ItineraryDay> ordered = new ArrayList<>(days);
+        ordered.sort(Comparator.comparingInt(ItineraryDay::getDayNumber));
+        Predicate<ItineraryDay> rest = d -> styleChanged && rules.isRestDay(d.getDayNumber());
+        long activeDays = ordered.stream().filter(rest.negate()).count();
+
+        int kept = 0;
+        int dropped = 0;
+        int added = 0;
+        for (ItineraryDay day : ordered) {
+            List<Activity> current = day.getActivities();
+            if (rest.test(day)) {
+                dropped += current.size();
+                current.clear();
+                continue;
+            }
+
+            DayBudget budget = new DayBudget(rules, remaining / activeDays--);
+            List<Activity> keep = new ArrayList<>();
+            for (Activity a : current) {
+                if (budget.take(cost(a), Optional.ofNullable(a.getDurationMinutes()).orElse(0))) {
+                    keep.add(a);
+                }
+            }
+            dropped += current.size() - keep.size();
+            kept += keep.size();
+            current.retainAll(keep);
+
+            var it = pool.iterator();
+            while (it.hasNext() && budget.hasRoom()) {
+                CatalogActivity c = it.next();
+                double price = Optional.ofNullable(c.getCostAmount()).orElse(BigDecimal.ZERO).doubleValue() * people;
+                if (budget.take(price, c.getDurationMinutes())) {
+                    current.add(fromCatalog(trip, day, c, price));
+                    it.remove();
+                    added++;
+                }
+            }
+
+            int position = 1;
+            for (Activity a : current) {
+                a.setPosition(position++);
+            }
+            remaining -= budget.spent;
+        }
+        return new Result(kept, dropped, added);
+    }
+
+    private static Activity fromCatalog(Trip trip, ItineraryDay day, CatalogActivity c, double price) {
+        return Activity.builder()
+                .itineraryDay(day)
+                .name(c.getName())
+                .location(trip.getDestination())
+                .costAmount(BigDecimal.valueOf(price))
+                .costCurrency(trip.getBudgetCurrency())
+                .startTime(c.getStartTime())
+                .durationMinutes(c.getDurationMinutes())
+                .build();
+    }
+
+    private static double cost(Activity a) {
+        return a.getCostAmount() == null ? 0 : a.getCostAmount().doubleValue();
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** What one day may still take: activity count, minutes and money. */
+    private static final class DayBudget {
+        private final PacingRules rules;
+        private final double limit;
+        private int count;
+        private int minutes;
+        private double spent;
+
+        DayBudget(PacingRules rules, double limit) {
+            this.rules = rules;
+            this.limit = limit;
+        }
+
+        boolean hasRoom() {
+            return count < rules.maxActivities() && minutes < rules.maxMinutes();
+        }
+
+        boolean take(double cost, int duration) {
+            if (count >= rules.maxActivities() || minutes + duration > rules.maxMinutes() || spent + cost > limit) {
+                return false;
+            }
+            count++;
+            minutes += duration;
+            spent += cost;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Per-itinerary cache of the mapped GenerateItineraryResponse served by
+ * GET /api/itineraries/{id} and /{id}/budget. Anything that writes a trip, its
+ * days or its activities must call evict(id). Cached responses are shared
+ * between requests and must be treated as read-only.
+ *
+ * Hit/miss/eviction counts are published as the "itinerary.responses" cache metrics.
+ */
+@Component
+public class ItineraryResponseCache {
+
+    private final Cache<Long, GenerateItineraryResponse> cache;
+
+    public ItineraryResponseCache(MeterRegistry meterRegistry,
+                                  @Value("${app.itinerary.response-cache.max-size:1000}") long maxSize,
+                                  @Value("${app.itinerary.response-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itinerary.responses");
+    }
+
+    public GenerateItineraryResponse get(Long itineraryId, Function<Long, GenerateItineraryResponse> loader) {
+        return cache.get(itineraryId, loader);
+    }
+
+    public Optional<GenerateItineraryResponse> getIfPresent(Long itineraryId) {
+        return Optional.ofNullable(cache.getIfPresent(itineraryId));
+    }
+
+    /**
+     * Evicts the entry now and, when called inside a transaction, again after
+     * commit, so a read that races the write can't re-cache the old state.
+     */
+    public void evict(Long itineraryId) {
+        cache.invalidate(itineraryId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(itineraryId);
+                }
+            });
+        }
+    }
+}
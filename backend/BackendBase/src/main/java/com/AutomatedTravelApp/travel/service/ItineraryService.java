@@ -1,21 +1,34 @@
 package com.AutomatedTravelApp.travel.service;
 
-import com.AutomatedTravelApp.travel.ai.AIEngine;
+import com.AutomatedTravelApp.travel.ai.AiClient;
 import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.ai.AiResponseCache;
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics.Stage;
+import com.AutomatedTravelApp.travel.ai.HedgedAiCaller;
+import com.AutomatedTravelApp.travel.ai.IncrementalDayParser;
+import com.AutomatedTravelApp.travel.ai.LocalItineraryEngine;
+import com.AutomatedTravelApp.travel.dto.BudgetBreakdown;
 import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
 import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
 import com.AutomatedTravelApp.travel.model.*;
 import com.AutomatedTravelApp.travel.repository.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Service
@@ -27,12 +40,99 @@ public class ItineraryService {
     private final ItineraryDayRepository dayRepository;
     private final ActivityRepository activityRepository;
     private final ItineraryMapper mapper;
+    private final ItineraryWriter itineraryWriter;
+    private final ItineraryResponseCache responseCache;
+    private final AiClient aiClient;
+    private final LocalItineraryEngine localEngine;
+    private final HedgedAiCaller hedgedAiCaller;
+    private final AiResponseCache aiResponseCache;
+    private final ItineraryTemplateStore templateStore;
+    private final ItineraryReplanner replanner;
+    private final GenerationMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final DateTimeFormatter AI_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
-    @Transactional
+    /**
+     * Creates the trip, asks the AI for its days/activities and persists them.
+     * The AI call runs outside any transaction so a slow Gemini round trip never
+     * holds a pooled connection; the trip insert and the itinerary insert each get
+     * their own short transaction.
+     */
     public GenerateItineraryResponse generate(GenerateItineraryRequest req) {
+        return generate(req, null);
+    }
+
+    /** Receives the days of a streamed generation as they become available. */
+    public interface DayListener {
+
+        /** dayNumber is the day's 1-based position in the itinerary being streamed. */
+        void day(int dayNumber, AiItineraryJson.AiDay day);
+
+        /**
+         * The days sent so far are void: the AI stream failed part way and the
+         * fallback itinerary follows, again from day 1.
+         */
+        void reset(String reason);
+    }
+
+    /**
+     * Streaming variant of generate: uses the AI client's streaming API and passes
+     * each day to the listener as soon as it has fully arrived, before anything is
+     * persisted. The returned response is the same as generate's.
+     */
+    public GenerateItineraryResponse generateStreaming(GenerateItineraryRequest req, DayListener listener) {
+        return generate(req, Objects.requireNonNull(listener));
+    }
+
+    private GenerateItineraryResponse generate(GenerateItineraryRequest req, DayListener onDay) {
+        return metrics.observation("itinerary.generate")
+                .highCardinalityKeyValue("itinerary.destination", String.valueOf(req.getDestination()))
+                .observe(() -> metrics.timer(Stage.TOTAL).record(() -> {
+                    Trip trip = transactionTemplate.execute(status -> createTrip(req));
+                    Draft draft = fetchFromAi(trip, onDay);
+                    try {
+                        return transactionTemplate.execute(status -> persistItinerary(trip.getId(), req, draft));
+                    } catch (RuntimeException e) {
+                        // Don't leave a trip without days behind if the second transaction fails.
+                        transactionTemplate.executeWithoutResult(status -> tripRepository.deleteById(trip.getId()));
+                        throw e;
+                    }
+                }));
+    }
+
+    /**
+     * First half of generate for bulk callers: creates the trip and fetches its
+     * draft, but leaves the days unpersisted so several plans can be written
+     * together with persistAll.
+     */
+    public Planned plan(GenerateItineraryRequest req) {
+        return metrics.observation("itinerary.plan")
+                .highCardinalityKeyValue("itinerary.destination", String.valueOf(req.getDestination()))
+                .observe(() -> {
+                    Trip trip = transactionTemplate.execute(status -> createTrip(req));
+                    return new Planned(trip.getId(), req, fetchFromAi(trip, null));
+                });
+    }
+
+    /**
+     * Persists several plans in a single transaction (one connection checkout and
+     * one commit for the group). If it fails nothing is written and the caller can
+     * retry the plans one by one.
+     */
+    public List<GenerateItineraryResponse> persistAll(List<Planned> plans) {
+        return transactionTemplate.execute(status -> plans.stream()
+                .map(p -> persistItinerary(p.tripId(), p.req(), p.draft()))
+                .toList());
+    }
+
+    /** Deletes the trip of a plan that could not be persisted. */
+    public void discard(Planned plan) {
+        transactionTemplate.executeWithoutResult(status -> tripRepository.deleteById(plan.tripId()));
+    }
+
+    private Trip createTrip(GenerateItineraryRequest req) {
         var user = userRepository.findByEmail("demo@user.com").orElseGet(() -> {
             var u = new User();
             u.setEmail("demo@user.com");
@@ -68,110 +168,334 @@ public class ItineraryService {
                 .interests(Optional.ofNullable(req.getInterests()).orElse(Set.of()))
                 .peopleCount(Optional.ofNullable(req.getPeopleCount()).orElse(1))
                 .build();
-        trip = tripRepository.save(trip);
-
-        boolean aiPopulated = tryPopulateFromAi(trip, req);
+        return tripRepository.save(trip);
+    }
 
-        if (!aiPopulated) {
-            // Fallback: AI call failed or key missing — seed a single placeholder
-            // activity so the trip isn't completely empty.
+    private GenerateItineraryResponse persistItinerary(Long tripId, GenerateItineraryRequest req,
+                                                       Draft draft) {
+        Trip trip = tripRepository.findWithDetailsById(tripId)
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found: " + tripId));
+
+        Timer.Sample persist = Timer.start();
+        if (draft != null) {
+            populateFromAi(trip, draft.itinerary());
+            metrics.itinerarySize(draft.itinerary().getDays().size(), draft.itinerary().getDays().stream()
+                    .mapToInt(d -> d.getActivities() == null ? 0 : d.getActivities().size())
+                    .sum());
+        } else {
+            // Last resort: both the AI and the local engine failed — seed a single
+            // placeholder activity so the trip isn't completely empty.
             ItineraryDay day1 = ItineraryDay.builder()
-                    .trip(trip)
                     .dayNumber(1)
                     .build();
-            day1 = dayRepository.save(day1);
-
-            Activity a = Activity.builder()
-                    .itineraryDay(day1)
+            day1.getActivities().add(Activity.builder()
                     .position(1)
                     .name("Explore " + req.getDestination())
                     .location(req.getDestination())
                     .costAmount(BigDecimal.ZERO)
                     .costCurrency("OMR")
                     .durationMinutes(90)
-                    .build();
-            activityRepository.save(a);
+                    .build());
+            itineraryWriter.saveDays(trip, List.of(day1));
+            metrics.itinerarySize(1, 1);
         }
+        persist.stop(metrics.timer(Stage.PERSIST));
 
-        var days = dayRepository.findByTripOrderByDayNumberAsc(trip);
-        var acts = new ArrayList<Activity>();
-        for (var d : days) {
-            acts.addAll(activityRepository.findByItineraryDayOrderByPosition(d));
-        }
-
-        var res = mapper.fromTrip(trip, days, acts);
-        res.setMessage(aiPopulated ? "Itinerary generated by AI" : "Itinerary created");
+        var res = toResponse(trip);
+        res.setMessage(draft != null ? draft.message() : "Itinerary created");
         return res;
     }
 
     /**
-     * Calls AIEngine, parses the returned JSON, and persists real days/activities
-     * for the given trip. Returns false (and persists nothing) if anything goes
-     * wrong, so the caller can fall back to a simple placeholder instead of failing
-     * the whole request.
+     * Calls the AI client (through the response cache) under the hedged caller's
+     * deadline and parses the returned JSON, streaming days to onDay when it is
+     * non-null (streams run under the longer stream deadline, and if the fallback
+     * takes over after AI days were sent, onDay is reset first). Runs outside any
+     * transaction. Hot destinations are served from a
+     * precomputed template with no AI call. If the AI fails or the deadline
+     * passes, the local engine plans the trip instead; the draft's message names
+     * the path that served it. Returns null only if both fail.
      */
-    private boolean tryPopulateFromAi(Trip trip, GenerateItineraryRequest req) {
-        try {
-            AIEngine engine = new AIEngine();
+    private Draft fetchFromAi(Trip trip, DayListener onDay) {
+        Optional<AiItineraryJson> template = templateStore.adapt(trip);
+        if (template.isPresent()) {
+            if (onDay != null) {
+                sendDays(template.get(), onDay);
+            }
+            metrics.served("template");
+            return new Draft(template.get(), "Itinerary generated from template");
+        }
 
+        String fallbackReason;
+        AtomicBoolean streamed = new AtomicBoolean();
+        boolean replay = false;
+        try {
             var responseData = new GenerateItineraryResponse();
             responseData.setTravelStyle(trip.getTravelStyle());
 
-            String json = engine.generateItineraryJson(trip, responseData);
-            AiItineraryJson parsed = OBJECT_MAPPER.readValue(json, AiItineraryJson.class);
+            HedgedAiCaller.Outcome outcome;
+            if (onDay == null) {
+                // The hedge skips the cache: the cached call is the slow one it races.
+                outcome = hedgedAiCaller.call(
+                        () -> aiResponseCache.get(trip, trip.getTravelStyle(),
+                                () -> aiClient.generateItineraryJson(trip, responseData)),
+                        () -> aiClient.generateItineraryJson(trip, responseData));
+            } else {
+                // No hedge for streams (it would send every day twice); stop forwarding
+                // days once the deadline has passed and the fallback takes over.
+                AtomicBoolean open = new AtomicBoolean(true);
+                var dayParser = new IncrementalDayParser(OBJECT_MAPPER, (day, dayNumber) -> {
+                    if (open.get()) {
+                        streamed.set(true);
+                        onDay.day(dayNumber, day);
+                    }
+                });
+                try {
+                    outcome = hedgedAiCaller.stream(
+                            () -> aiResponseCache.get(trip, trip.getTravelStyle(),
+                                    () -> aiClient.streamItineraryJson(trip, responseData, dayParser::accept)));
+                } finally {
+                    open.set(false);
+                }
+                // Cache hit (or shared in-flight call): nothing streamed, replay it all once parsed.
+                replay = dayParser.emitted() == 0;
+            }
+            AiItineraryJson parsed = parse(outcome.value());
+
+            if (parsed.getDays() != null && !parsed.getDays().isEmpty()) {
+                // A cached answer may have been generated for another trip with the same span.
+                redate(parsed, trip.getStartDate());
+                if (replay) {
+                    streamed.set(true);
+                    sendDays(parsed, onDay);
+                }
+                metrics.served(outcome.hedged() ? "hedged" : "ai");
+                return new Draft(parsed, outcome.hedged()
+                        ? "Itinerary generated by AI (hedged request)"
+                        : "Itinerary generated by AI");
+            }
+            log.warn("AI response had no days for trip {}", trip.getId());
+            fallbackReason = "AI returned no days";
+        } catch (TimeoutException e) {
+            log.warn("AI itinerary generation for trip {} missed its deadline, falling back to local engine",
+                    trip.getId());
+            fallbackReason = "AI deadline exceeded";
+        } catch (Exception e) {
+            // Covers: missing/invalid GEMINI_API_KEY, network failure, malformed
+            // AI JSON, etc. Logged, not thrown — a broken AI call should never
+            // 500 the whole "generate itinerary" request.
+            log.warn("AI itinerary generation failed for trip {}, falling back to local engine: {}",
+                    trip.getId(), e.getMessage());
+            fallbackReason = "AI unavailable";
+        }
+        if (streamed.get()) {
+            // The client already has some AI days; they are not what gets persisted.
+            onDay.reset(fallbackReason);
+        }
+        return planLocally(trip, onDay, fallbackReason);
+    }
+
+    /**
+     * Puts the itinerary on the trip's dates: day i on start + i, and the hotel from
+     * the first to the last day, like ItineraryTemplateStore.adapt.
+     */
+    private static void redate(AiItineraryJson itinerary, LocalDate start) {
+        List<AiItineraryJson.AiDay> days = itinerary.getDays();
+        for (int i = 0; i < days.size(); i++) {
+            days.get(i).setDate(start.plusDays(i).format(AI_DATE_FORMAT));
+        }
+        if (itinerary.getHotel() != null) {
+            itinerary.getHotel().setCheckIn(start.format(AI_DATE_FORMAT));
+            itinerary.getHotel().setCheckOut(start.plusDays(days.size() - 1).format(AI_DATE_FORMAT));
+        }
+    }
 
-            if (parsed.getDays() == null || parsed.getDays().isEmpty()) {
-                log.warn("AI response had no days for trip {}", trip.getId());
-                return false;
+    private static void sendDays(AiItineraryJson itinerary, DayListener onDay) {
+        List<AiItineraryJson.AiDay> days = itinerary.getDays();
+        for (int i = 0; i < days.size(); i++) {
+            onDay.day(i + 1, days.get(i));
+        }
+    }
+
+    /**
+     * Plans the trip with the in-process engine from the activity catalog. Days are
+     * passed to onDay (when streaming) as one batch since they are ready at once.
+     * Returns null when the destination has no catalog, leaving the placeholder.
+     */
+    private Draft planLocally(Trip trip, DayListener onDay, String reason) {
+        try {
+            var responseData = new GenerateItineraryResponse();
+            responseData.setTravelStyle(trip.getTravelStyle());
+            AiItineraryJson planned = OBJECT_MAPPER.readValue(
+                    localEngine.generateItineraryJson(trip, responseData), AiItineraryJson.class);
+            if (onDay != null) {
+                sendDays(planned, onDay);
             }
+            metrics.served("local");
+            return new Draft(planned, "Itinerary generated locally (" + reason + ")");
+        } catch (Exception e) {
+            log.warn("Local itinerary generation failed for trip {}, falling back to placeholder: {}",
+                    trip.getId(), e.getMessage());
+            metrics.served("placeholder");
+            return null;
+        }
+    }
 
-            int dayNumber = 1;
-            for (AiItineraryJson.AiDay aiDay : parsed.getDays()) {
-                ItineraryDay day = ItineraryDay.builder()
-                        .trip(trip)
-                        .dayNumber(dayNumber)
-                        .build();
-                day = dayRepository.save(day);
-
-                int position = 1;
-                if (aiDay.getActivities() != null) {
-                    for (AiItineraryJson.AiActivity aiActivity : aiDay.getActivities()) {
-                        Activity activity = Activity.builder()
-                                .itineraryDay(day)
-                                .position(position++)
-                                .name(Optional.ofNullable(aiActivity.getName()).orElse("Activity"))
-                                .location(trip.getDestination())
-                                .costAmount(BigDecimal.valueOf(
-                                        Optional.ofNullable(aiActivity.getCost()).orElse(0.0)))
-                                .costCurrency(trip.getBudgetCurrency())
-                                .durationMinutes(estimateDurationMinutes(aiActivity.getStart(), aiActivity.getEnd()))
-                                .build();
-                        activityRepository.save(activity);
-                    }
-                }
-                dayNumber++;
+    private AiItineraryJson parse(String json) throws Exception {
+        try {
+            return metrics.time(Stage.PARSE, () -> OBJECT_MAPPER.readValue(json, AiItineraryJson.class));
+        } catch (JsonProcessingException e) {
+            metrics.parseFailed();
+            throw e;
+        }
+    }
+
+    /** Persists the parsed AI days/activities (and flight/hotel costs) on the trip. */
+    private void populateFromAi(Trip trip, AiItineraryJson parsed) {
+        List<ItineraryDay> days = new ArrayList<>(parsed.getDays().size());
+        int dayNumber = 1;
+        for (AiItineraryJson.AiDay aiDay : parsed.getDays()) {
+            ItineraryDay day = ItineraryDay.builder()
+                    .dayNumber(dayNumber++)
+                    .build();
+            day.getActivities().addAll(toActivities(trip, aiDay));
+            days.add(day);
+        }
+        itineraryWriter.saveDays(trip, days);
+
+        if (parsed.getFlight() != null && parsed.getFlight().getCost() != null) {
+            trip.setFlightCost(parsed.getFlight().getCost());
+        }
+        if (parsed.getHotel() != null && parsed.getHotel().getCost() != null) {
+            trip.setHotelCost(parsed.getHotel().getCost());
+        }
+        tripRepository.save(trip);
+    }
+
+    /** The AI day's activities at positions 1..n, not yet attached to a day. */
+    private static List<Activity> toActivities(Trip trip, AiItineraryJson.AiDay aiDay) {
+        List<Activity> activities = new ArrayList<>();
+        if (aiDay.getActivities() != null) {
+            int position = 1;
+            for (AiItineraryJson.AiActivity aiActivity : aiDay.getActivities()) {
+                activities.add(Activity.builder()
+                        .position(position++)
+                        .name(Optional.ofNullable(aiActivity.getName()).orElse("Activity"))
+                        .location(trip.getDestination())
+                        .costAmount(BigDecimal.valueOf(
+                                Optional.ofNullable(aiActivity.getCost()).orElse(0.0)))
+                        .costCurrency(trip.getBudgetCurrency())
+                        .durationMinutes(estimateDurationMinutes(aiActivity.getStart(), aiActivity.getEnd()))
+                        .build());
             }
+        }
+        return activities;
+    }
+
+    /**
+     * Re-plans only the given days of an itinerary. The AI sees those days plus a
+     * one-line summary of each other day, so the call's size and latency follow
+     * the selection, not the trip length. It runs outside any transaction, like
+     * generate, and falls back to the local engine; the selected days' activities
+     * are then replaced in one short transaction and the other days are untouched.
+     *
+     * Throws IllegalArgumentException for an unknown trip or day, and
+     * IllegalStateException if neither the AI nor the local engine could plan.
+     */
+    public GenerateItineraryResponse regenerateDays(Long tripId, Collection<Integer> dayNumbers) {
+        List<Integer> selected = List.copyOf(new TreeSet<>(dayNumbers));
+        return metrics.observation("itinerary.regenerate")
+                .highCardinalityKeyValue("itinerary.regenerated.days", selected.toString())
+                .observe(() -> {
+                    Regeneration context = transactionTemplate.execute(status -> loadForRegeneration(tripId, selected));
+                    Draft draft = fetchDays(context, selected);
+                    var res = transactionTemplate.execute(status -> replaceDays(tripId, selected, draft.itinerary()));
+                    res.setMessage(draft.message());
+                    return res;
+                });
+    }
 
-            if (parsed.getFlight() != null && parsed.getFlight().getCost() != null) {
-                trip.setFlightCost(parsed.getFlight().getCost());
+    private Regeneration loadForRegeneration(Long tripId, List<Integer> selected) {
+        Trip trip = tripRepository.findWithDetailsById(tripId)
+                .orElseThrow(() -> new IllegalArgumentException("Trip not found: " + tripId));
+        // Load the user now: the prompt reads its preferences after the transaction.
+        Hibernate.initialize(trip.getUser());
+
+        Map<Integer, List<String>> otherDays = new TreeMap<>();
+        Set<Integer> found = new HashSet<>();
+        for (ItineraryDay day : dayRepository.findWithActivitiesByTripId(tripId)) {
+            if (selected.contains(day.getDayNumber())) {
+                found.add(day.getDayNumber());
+            } else {
+                otherDays.put(day.getDayNumber(), day.getActivities().stream().map(Activity::getName).toList());
             }
-            if (parsed.getHotel() != null && parsed.getHotel().getCost() != null) {
-                trip.setHotelCost(parsed.getHotel().getCost());
+        }
+        for (Integer dayNumber : selected) {
+            if (!found.contains(dayNumber)) {
+                throw new IllegalArgumentException("Day " + dayNumber + " not found in trip " + tripId);
             }
-            tripRepository.save(trip);
+        }
+        return new Regeneration(trip, otherDays);
+    }
 
-            return true;
+    private Draft fetchDays(Regeneration context, List<Integer> selected) {
+        Trip trip = context.trip();
+        TravelStyle style = trip.getTravelStyle();
+        String fallbackReason;
+        try {
+            HedgedAiCaller.Outcome outcome = hedgedAiCaller.call(
+                    () -> aiClient.generateDaysJson(trip, style, selected, context.otherDays()),
+                    () -> aiClient.generateDaysJson(trip, style, selected, context.otherDays()));
+            AiItineraryJson parsed = parse(outcome.value());
+            if (parsed.getDays() != null && parsed.getDays().size() >= selected.size()) {
+                metrics.served(outcome.hedged() ? "hedged" : "ai");
+                return new Draft(parsed, "Days regenerated by AI");
+            }
+            fallbackReason = "AI returned too few days";
+        } catch (TimeoutException e) {
+            fallbackReason = "AI deadline exceeded";
         } catch (Exception e) {
-            // Covers: missing/invalid GEMINI_API_KEY, network failure, malformed
-            // AI JSON, etc. Logged, not thrown — a broken AI call should never
-            // 500 the whole "generate itinerary" request.
-            log.warn("AI itinerary generation failed for trip {}, falling back to placeholder: {}",
+            log.warn("AI day regeneration failed for trip {}, falling back to local engine: {}",
                     trip.getId(), e.getMessage());
-            return false;
+            fallbackReason = "AI unavailable";
+        }
+
+        try {
+            AiItineraryJson planned = OBJECT_MAPPER.readValue(
+                    localEngine.generateDaysJson(trip, style, selected, context.otherDays()), AiItineraryJson.class);
+            metrics.served("local");
+            return new Draft(planned, "Days regenerated locally (" + fallbackReason + ")");
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not regenerate days (" + fallbackReason + "): " + e.getMessage(), e);
+        }
+    }
+
+    private GenerateItineraryResponse replaceDays(Long tripId, List<Integer> selected, AiItineraryJson itinerary) {
+        List<Long> dayIds = new ArrayList<>(selected.size());
+        for (Integer dayNumber : selected) {
+            dayIds.add(dayRepository.findByTripIdAndDayNumber(tripId, dayNumber)
+                    .orElseThrow(() -> new IllegalStateException("Day " + dayNumber + " was removed during regeneration"))
+                    .getId());
         }
+        activityRepository.deleteByDayIdIn(dayIds);
+
+        Trip trip = tripRepository.findWithDetailsById(tripId)
+                .orElseThrow(() -> new IllegalStateException("Trip removed during regeneration: " + tripId));
+        List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < dayIds.size(); i++) {
+            ItineraryDay day = dayRepository.getReferenceById(dayIds.get(i));
+            for (Activity activity : toActivities(trip, itinerary.getDays().get(i))) {
+                activity.setItineraryDay(day);
+                activities.add(activity);
+            }
+        }
+        activityRepository.saveAll(activities);
+        activityRepository.flush();
+        responseCache.evict(tripId);
+        return toResponse(trip);
     }
 
-    private int estimateDurationMinutes(String start, String end) {
+    static int estimateDurationMinutes(String start, String end) {
         try {
             DateTimeFormatter hhmm = DateTimeFormatter.ofPattern("HH:mm");
             var s = java.time.LocalTime.parse(start, hhmm);
@@ -183,10 +507,17 @@ public class ItineraryService {
         }
     }
 
+    /**
+     * Applies the trip-level fields of req. When the travel style or the activity
+     * budget changes, the stored activities are re-planned in-process to fit
+     * (see ItineraryReplanner) instead of being left over budget.
+     */
     @Transactional
     public GenerateItineraryResponse updateItinerary(Long id, GenerateItineraryRequest req) {
-        Trip trip = tripRepository.findById(id)
+        Trip trip = tripRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Trip not found: " + id));
+        TravelStyle styleBefore = trip.getTravelStyle();
+        Double activityBudgetBefore = activityBudget(trip);
 
         if (req.getDestination() != null && !req.getDestination().isBlank()) {
             trip.setDestination(req.getDestination());
@@ -232,33 +563,86 @@ public class ItineraryService {
         }
 
         trip = tripRepository.save(trip);
-
-        var days = dayRepository.findByTripOrderByDayNumberAsc(trip);
-        var acts = new ArrayList<Activity>();
-        for (var d : days) {
-            acts.addAll(activityRepository.findByItineraryDayOrderByPosition(d));
+        responseCache.evict(id);
+
+        String message = "Itinerary updated";
+        boolean styleChanged = trip.getTravelStyle() != styleBefore;
+        if (styleChanged || !Objects.equals(activityBudget(trip), activityBudgetBefore)) {
+            ItineraryReplanner.Result replanned = replanner.replan(trip, dayRepository.findWithActivitiesByTripId(id),
+                    styleChanged);
+            message = "Itinerary updated and re-planned (%d kept, %d dropped, %d added)"
+                    .formatted(replanned.kept(), replanned.dropped(), replanned.added());
         }
 
-        var res = mapper.fromTrip(trip, days, acts);
-        res.setMessage("Itinerary updated");
+        var res = toResponse(trip);
+        res.setMessage(message);
         return res;
     }
 
+    private static Double activityBudget(Trip trip) {
+        return trip.getBudgetBreakdown() == null ? null : trip.getBudgetBreakdown().get("activity");
+    }
+
+    /**
+     * Read-through: served from ItineraryResponseCache, mapped from the database
+     * on a miss. Callers must not modify the returned response.
+     */
     @Transactional(readOnly = true)
     public GenerateItineraryResponse getById(Long itineraryId) {
-        Trip trip = tripRepository.findById(itineraryId)
-                .orElseThrow(() -> new IllegalArgumentException("Trip not found: " + itineraryId));
+        return responseCache.get(itineraryId, id -> {
+            Trip trip = tripRepository.findWithDetailsById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Trip not found: " + id));
+            return toResponse(trip);
+        });
+    }
 
-        List<ItineraryDay> days = dayRepository.findByTripOrderByDayNumberAsc(trip);
+    /** Budget split only: from the cached response if present, otherwise one narrow query. */
+    @Transactional(readOnly = true)
+    public BudgetBreakdown getBudget(Long itineraryId) {
+        Map<String, Double> amounts = responseCache.getIfPresent(itineraryId)
+                .map(GenerateItineraryResponse::getBudgetBreakdown)
+                .orElseGet(() -> loadBudgetBreakdown(itineraryId));
+
+        BudgetBreakdown breakdown = new BudgetBreakdown();
+        breakdown.flightCost   = amounts.getOrDefault("flight",   0.0);
+        breakdown.hotelCost    = amounts.getOrDefault("hotel",    0.0);
+        breakdown.activityCost = amounts.getOrDefault("activity", 0.0);
+        return breakdown;
+    }
 
-        List<Activity> activities = new ArrayList<>();
-        for (ItineraryDay d : days) {
-            activities.addAll(activityRepository.findByItineraryDayOrderByPosition(d));
+    private Map<String, Double> loadBudgetBreakdown(Long itineraryId) {
+        List<Object[]> rows = tripRepository.findBudgetBreakdown(itineraryId);
+        if (rows.isEmpty() && !tripRepository.existsById(itineraryId)) {
+            throw new IllegalArgumentException("Trip not found: " + itineraryId);
         }
+        Map<String, Double> amounts = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            amounts.put((String) row[0], (Double) row[1]);
+        }
+        return amounts;
+    }
 
-        return mapper.fromTrip(trip, days, activities);
+    /** Maps the trip with all its days and activities, loaded in a single query. */
+    private GenerateItineraryResponse toResponse(Trip trip) {
+        List<ItineraryDay> days = dayRepository.findWithActivitiesByTripId(trip.getId());
+        List<Activity> activities = days.stream()
+                .flatMap(d -> d.getActivities().stream())
+                .toList();
+        return metrics.timer(Stage.MAP).record(() -> mapper.fromTrip(trip, days, activities));
     }
 
+    /**
+     * An itinerary ready to persist, with the response message naming where it came
+     * from. Public because it is a component of Planned, which bulk callers hold.
+     */
+    public record Draft(AiItineraryJson itinerary, String message) {}
+
+    /** A trip loaded for day regeneration, with the activity names of the days that stay. */
+    private record Regeneration(Trip trip, Map<Integer, List<String>> otherDays) {}
+
+    /** A created trip and its fetched draft, waiting to be persisted. */
+    public record Planned(Long tripId, GenerateItineraryRequest req, Draft draft) {}
+
     private Map<String, Double> defaultBreakdownFor(TravelStyle style, double total) {
         return switch (style) {
             case LUXURY -> Map.of("hotel", total * 0.60, "flight", total * 0.25, "activity", total * 0.15);
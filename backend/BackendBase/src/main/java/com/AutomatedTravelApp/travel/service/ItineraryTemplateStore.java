@@ -0,0 +1,260 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.ai.AiCallContext;
+import com.AutomatedTravelApp.travel.ai.AiClient;
+import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.TripRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-generated itineraries for the app.ai.templates.top-destinations most
+ * planned destinations, one per travel style and day-count bucket
+ * (app.ai.templates.day-counts). They are regenerated in the background every
+ * app.ai.templates.refresh-ms at PREFETCH priority.
+ *
+ * A request for a stored destination/style whose length fits a bucket is served
+ * by adapting the template in-process (dates, budget, people count) with no AI
+ * call. Interests and user preferences are not part of the key: a template is
+ * the destination's generic plan.
+ */
+@Slf4j
+@Component
+public class ItineraryTemplateStore {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    /** Budget adaptation never scales template costs beyond this factor either way. */
+    private static final double MAX_SCALE = 2.0;
+
+    record Key(String destination, TravelStyle style, int days) {}
+
+    /** A generated itinerary and the per-person daily budget it was generated for. */
+    record Template(AiItineraryJson itinerary, double budgetPerDay) {}
+
+    private final Map<Key, Template> templates = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final TripRepository tripRepository;
+    private final AiClient aiClient;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final int topDestinations;
+    private final List<Integer> dayCounts;
+    private final double referenceBudgetPerDay;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ItineraryTemplateStore(TripRepository tripRepository,
+                                  AiClient aiClient,
+                                  @Qualifier("templateWarmerExecutor") TaskExecutor executor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.ai.templates.enabled:true}") boolean enabled,
+                                  @Value("${app.ai.templates.top-destinations:10}") int topDestinations,
+                                  @Value("${app.ai.templates.day-counts:3,5,7}") List<Integer> dayCounts,
+                                  @Value("${app.ai.templates.reference-budget-per-day:150}") double referenceBudgetPerDay) {
+        this.tripRepository = tripRepository;
+        this.aiClient = aiClient;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.topDestinations = topDestinations;
+        this.dayCounts = dayCounts.stream().sorted().toList();
+        this.referenceBudgetPerDay = referenceBudgetPerDay;
+        this.hits = meterRegistry.counter("itinerary.templates.hits");
+        this.misses = meterRegistry.counter("itinerary.templates.misses");
+        meterRegistry.gauge("itinerary.templates.size", templates, Map::size);
+    }
+
+    /**
+     * Adapts the stored template for the trip's destination and style from the
+     * smallest bucket that covers its length. Empty if there is none.
+     */
+    public Optional<AiItineraryJson> adapt(Trip trip) {
+        if (!enabled || trip.getDestination() == null) return Optional.empty();
+        int days = dayCount(trip);
+        String destination = normalize(trip.getDestination());
+        for (int bucket : dayCounts) {
+            if (bucket < days) continue;
+            Template template = templates.get(new Key(destination, trip.getTravelStyle(), bucket));
+            if (template != null && template.itinerary().getDays().size() >= days) {
+                hits.increment();
+                return Optional.of(adapt(template, trip));
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /** Starts a background refresh unless one is already running. */
+    @Scheduled(initialDelayString = "${app.ai.templates.initial-delay-ms:60000}",
+            fixedDelayString = "${app.ai.templates.refresh-ms:21600000}")
+    public void scheduleRefresh() {
+        if (!enabled || !refreshing.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.warn("Template refresh not started: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Regenerates every template for the current top destinations, one AI call
+     * at a time, and drops templates of destinations no longer in the top list.
+     * A failed call keeps the previous template.
+     */
+    public void refresh() {
+        List<String> destinations = tripRepository.findTopDestinations(PageRequest.of(0, topDestinations));
+        AiCallContext prefetch = new AiCallContext(AiCallContext.Priority.PREFETCH, "template-warmer");
+        int generated = 0;
+        for (String destination : destinations) {
+            for (TravelStyle style : TravelStyle.values()) {
+                for (int days : dayCounts) {
+                    try {
+                        Template template = prefetch.call(() -> generate(destination, style, days));
+                        templates.put(new Key(normalize(destination), style, days), template);
+                        generated++;
+                    } catch (Exception e) {
+                        log.warn("Template for {} / {} / {} days not refreshed: {}",
+                                destination, style, days, e.getMessage());
+                    }
+                }
+            }
+        }
+        Set<String> current = destinations.stream().map(ItineraryTemplateStore::normalize)
+                .collect(Collectors.toSet());
+        templates.keySet().removeIf(key -> !current.contains(key.destination()));
+        log.info("Refreshed {} itinerary templates for {} destinations", generated, destinations.size());
+    }
+
+    private Template generate(String destination, TravelStyle style, int days) throws Exception {
+        LocalDate start = LocalDate.now();
+        Trip trip = Trip.builder()
+                .destination(destination)
+                .startDate(start)
+                .endDate(start.plusDays(days - 1))
+                .travelStyle(style)
+                .budgetAmount(BigDecimal.valueOf(referenceBudgetPerDay * days))
+                .peopleCount(1)
+                .build();
+        var responseData = new GenerateItineraryResponse();
+        responseData.setTravelStyle(style);
+        AiItineraryJson itinerary = OBJECT_MAPPER.readValue(
+                aiClient.generateItineraryJson(trip, responseData), AiItineraryJson.class);
+        if (itinerary.getDays() == null || itinerary.getDays().isEmpty()) {
+            throw new IllegalStateException("AI returned no days");
+        }
+        return new Template(itinerary, referenceBudgetPerDay);
+    }
+
+    /**
+     * Copies the template's first N days onto the trip's dates. Costs are per
+     * person in the template: they are multiplied by the people count and scaled
+     * by the trip's per-person daily budget relative to the template's (capped at
+     * MAX_SCALE either way); the hotel also scales with the number of nights.
+     */
+    static AiItineraryJson adapt(Template template, Trip trip) {
+        AiItineraryJson source = template.itinerary();
+        int days = dayCount(trip);
+        int people = Math.max(1, Optional.ofNullable(trip.getPeopleCount()).orElse(1));
+        double scale = budgetScale(template, trip, days, people);
+
+        List<AiItineraryJson.AiDay> adaptedDays = new ArrayList<>(days);
+        double total = 0;
+        for (int i = 0; i < days; i++) {
+            AiItineraryJson.AiDay from = source.getDays().get(i);
+            AiItineraryJson.AiDay day = new AiItineraryJson.AiDay();
+            day.setDate(trip.getStartDate().plusDays(i).format(DATE));
+            List<AiItineraryJson.AiActivity> activities = new ArrayList<>();
+            double dayCost = 0;
+            for (AiItineraryJson.AiActivity a : Optional.ofNullable(from.getActivities()).orElse(List.of())) {
+                AiItineraryJson.AiActivity copy = new AiItineraryJson.AiActivity();
+                copy.setId(a.getId());
+                copy.setName(a.getName());
+                copy.setStart(a.getStart());
+                copy.setEnd(a.getEnd());
+                copy.setCost(round(Optional.ofNullable(a.getCost()).orElse(0.0) * scale * people));
+                dayCost += copy.getCost();
+                activities.add(copy);
+            }
+            day.setActivities(activities);
+            day.setDayCost(round(dayCost));
+            total += dayCost;
+            adaptedDays.add(day);
+        }
+
+        AiItineraryJson adapted = new AiItineraryJson();
+        adapted.setItineraryId("TEMPLATE-" + Optional.ofNullable(trip.getId()).map(String::valueOf).orElse("0"));
+        adapted.setDays(adaptedDays);
+        if (source.getFlight() != null && source.getFlight().getCost() != null) {
+            AiItineraryJson.AiFlight flight = new AiItineraryJson.AiFlight();
+            flight.setId(source.getFlight().getId());
+            flight.setCost(round(source.getFlight().getCost() * people));
+            total += flight.getCost();
+            adapted.setFlight(flight);
+        }
+        if (source.getHotel() != null && source.getHotel().getCost() != null) {
+            AiItineraryJson.AiHotel hotel = new AiItineraryJson.AiHotel();
+            hotel.setId(source.getHotel().getId());
+            hotel.setName(source.getHotel().getName());
+            hotel.setCheckIn(trip.getStartDate().format(DATE));
+            hotel.setCheckOut(trip.getStartDate().plusDays(days - 1).format(DATE));
+            double nights = (double) days / source.getDays().size();
+            int rooms = (people + 1) / 2;
+            hotel.setCost(round(source.getHotel().getCost() * nights * scale * rooms));
+            total += hotel.getCost();
+            adapted.setHotel(hotel);
+        }
+        adapted.setTotalCost(round(total));
+        return adapted;
+    }
+
+    private static double budgetScale(Template template, Trip trip, int days, int people) {
+        if (trip.getBudgetAmount() == null || trip.getBudgetAmount().signum() <= 0) return 1.0;
+        double perPersonPerDay = trip.getBudgetAmount().doubleValue() / people / days;
+        double scale = perPersonPerDay / template.budgetPerDay();
+        return Math.max(1 / MAX_SCALE, Math.min(MAX_SCALE, scale));
+    }
+
+    private static int dayCount(Trip trip) {
+        return (int) Math.max(1, ChronoUnit.DAYS.between(trip.getStartDate(), trip.getEndDate()) + 1);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String normalize(String destination) {
+        return destination.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,38 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.model.Activity;
+import com.AutomatedTravelApp.travel.model.ItineraryDay;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.ItineraryDayRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bulk write path for a trip's days and activities. Both use pooled sequence
+ * ids, so with hibernate.jdbc.batch_size and order_inserts the whole graph goes
+ * out as a handful of JDBC batches instead of one round trip per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItineraryWriter {
+
+    private final ItineraryDayRepository dayRepository;
+
+    /**
+     * Persists the days and, by cascade, their activities, then flushes so the
+     * batches are sent now. Must be called inside a transaction.
+     */
+    public List<ItineraryDay> saveDays(Trip trip, List<ItineraryDay> days) {
+        for (ItineraryDay day : days) {
+            day.setTrip(trip);
+            for (Activity activity : day.getActivities()) {
+                activity.setItineraryDay(day);
+            }
+        }
+        List<ItineraryDay> saved = dayRepository.saveAll(days);
+        dayRepository.flush();
+        return saved;
+    }
+}
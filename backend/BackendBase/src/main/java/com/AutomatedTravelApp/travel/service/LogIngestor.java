@@ -0,0 +1,276 @@
+package com.AutomatedTravelApp.travel.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.AutomatedTravelApp.travel.model.LogEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking write path for log_entries. submit() only offers the entry to a
+ * bounded in-memory queue; a scheduled flush drains it and writes each batch with
+ * one JDBC batch insert, updating the error_buckets rollup in the same transaction.
+ *
+ * When the queue is full the entry is dropped and counted (logs.ingest.dropped);
+ * the next flush records how many were lost as a WARNING entry. Application
+ * warnings and errors logged under com.AutomatedTravelApp are captured too, via
+ * a Logback appender attached at startup.
+ */
+@Slf4j
+@Component
+public class LogIngestor {
+
+    private static final String APP_LOGGER = "com.AutomatedTravelApp";
+    private static final String INSERT_LOG = """
+            insert into log_entries (level, message, source, user_email, created_at) values (?, ?, ?, ?, ?)""";
+    private static final String UPDATE_BUCKET = """
+            update error_buckets set occurrences = occurrences + ?,
+                first_occurred = least(first_occurred, ?), last_occurred = greatest(last_occurred, ?)
+            where message_hash = ?""";
+    private static final String INSERT_BUCKET = """
+            insert into error_buckets (message_hash, message, occurrences, first_occurred, last_occurred)
+            values (?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LogEntry> queue;
+    private final int maxBatch;
+    private final Level captureLevel;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong droppedSinceFlush = new AtomicLong();
+    private final CaptureAppender appender = new CaptureAppender();
+
+    public LogIngestor(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.logs.buffer-capacity:10000}") int capacity,
+                       @Value("${app.logs.max-batch:500}") int maxBatch,
+                       @Value("${app.logs.capture-level:WARN}") String captureLevel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.captureLevel = Level.toLevel(captureLevel, Level.WARN);
+        meterRegistry.gauge("logs.ingest.queue.size", queue, BlockingQueue::size);
+        this.droppedCounter = meterRegistry.counter("logs.ingest.dropped");
+        this.failedCounter = meterRegistry.counter("logs.ingest.failed");
+    }
+
+    /** Queues the entry for the next flush. Never blocks; returns false if it was dropped. */
+    public boolean submit(LogEntry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        droppedSinceFlush.incrementAndGet();
+        droppedCounter.increment();
+        return false;
+    }
+
+    /** Drains the queue in batches of app.logs.max-batch. Returns the number of entries written. */
+    @Scheduled(fixedDelayString = "${app.logs.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        int written = 0;
+        List<LogEntry> batch = new ArrayList<>(Math.min(maxBatch, queue.size() + 1));
+        while (true) {
+            long dropped = droppedSinceFlush.getAndSet(0);
+            if (dropped > 0) {
+                batch.add(entry("WARNING", "Dropped " + dropped + " log entries: ingestion buffer full",
+                        "LogIngestor"));
+            }
+            queue.drainTo(batch, maxBatch - batch.size());
+            if (batch.isEmpty()) {
+                return written;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                written += batch.size();
+            } catch (RuntimeException e) {
+                // Not retried: a poison batch would otherwise block the queue forever.
+                failedCounter.increment(batch.size());
+                log.error("Failed to write {} log entries: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<LogEntry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_LOG, batch, batch.size(), (ps, e) -> {
+            ps.setString(1, e.getLevel());
+            ps.setString(2, e.getMessage());
+            ps.setString(3, e.getSource());
+            ps.setString(4, e.getUserEmail());
+            ps.setTimestamp(5, Timestamp.from(e.getCreatedAt()));
+        });
+
+        // One rollup row update per distinct error message in the batch.
+        Map<String, Bucket> buckets = new LinkedHashMap<>();
+        for (LogEntry e : batch) {
+            if ("ERROR".equals(e.getLevel())) {
+                buckets.computeIfAbsent(e.getMessage(), Bucket::new).add(e.getCreatedAt());
+            }
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+        List<Bucket> pending = new ArrayList<>(buckets.values());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_BUCKET, pending, pending.size(), (ps, b) -> {
+            ps.setLong(1, b.count);
+            ps.setTimestamp(2, Timestamp.from(b.first));
+            ps.setTimestamp(3, Timestamp.from(b.last));
+            ps.setString(4, messageHash(b.message));
+        });
+        List<Bucket> missing = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(pending.get(i));
+            }
+        }
+        insertBuckets(missing);
+    }
+
+    private void insertBuckets(List<Bucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_BUCKET, buckets, buckets.size(), (ps, b) -> {
+            ps.setString(1, messageHash(b.message));
+            ps.setString(2, b.message);
+            ps.setLong(3, b.count);
+            ps.setTimestamp(4, Timestamp.from(b.first));
+            ps.setTimestamp(5, Timestamp.from(b.last));
+        });
+    }
+
+    /** Seeds an empty rollup from the existing log_entries, once, on first start. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillErrorBuckets() {
+        Long existing = jdbcTemplate.queryForObject("select count(*) from error_buckets", Long.class);
+        if (existing == null || existing > 0) {
+            return;
+        }
+        List<Bucket> buckets = jdbcTemplate.query("""
+                select message, count(*), min(created_at), max(created_at)
+                from log_entries where level = 'ERROR' group by message""", (rs, i) -> {
+            Bucket b = new Bucket(rs.getString(1));
+            b.count = rs.getLong(2);
+            b.first = rs.getTimestamp(3).toInstant();
+            b.last = rs.getTimestamp(4).toInstant();
+            return b;
+        });
+        transactionTemplate.executeWithoutResult(status -> insertBuckets(buckets));
+        if (!buckets.isEmpty()) {
+            log.info("Backfilled {} error buckets from log_entries", buckets.size());
+        }
+    }
+
+    /** Key of a message in error_buckets. */
+    public static String messageHash(String message) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(message.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static LogEntry entry(String level, String message, String source) {
+        return entry(level, message, source, null);
+    }
+
+    /**
+     * An entry cut to the log_entries column lengths: one oversized row would
+     * otherwise fail its whole batch insert.
+     */
+    public static LogEntry entry(String level, String message, String source, String userEmail) {
+        return LogEntry.builder()
+                .level(truncate(level, 20))
+                .message(truncate(message, 1000))
+                .source(truncate(source, 50))
+                .userEmail(userEmail == null ? null : truncate(userEmail, 160))
+                .build();
+    }
+
+    private static String truncate(String s, int max) {
+        if (s == null) return "";
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+
+    @PostConstruct
+    void attachAppender() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            appender.setContext(context);
+            appender.setName("logIngestor");
+            appender.start();
+            context.getLogger(APP_LOGGER).addAppender(appender);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.getLogger(APP_LOGGER).detachAppender(appender);
+        }
+        appender.stop();
+        flush();
+    }
+
+    private static final class Bucket {
+        private final String message;
+        private long count;
+        private Instant first;
+        private Instant last;
+
+        Bucket(String message) {
+            this.message = message;
+        }
+
+        void add(Instant at) {
+            count++;
+            first = first == null || at.isBefore(first) ? at : first;
+            last = last == null || at.isAfter(last) ? at : last;
+        }
+    }
+
+    /** Forwards application WARN/ERROR events into the queue (never the ingestor's own). */
+    private final class CaptureAppender extends AppenderBase<ILoggingEvent> {
+        @Override
+        protected void append(ILoggingEvent event) {
+            if (!event.getLevel().isGreaterOrEqual(captureLevel)
+                    || event.getLoggerName().equals(LogIngestor.class.getName())) {
+                return;
+            }
+            String level = event.getLevel() == Level.WARN ? "WARNING" : event.getLevel().toString();
+            String logger = event.getLoggerName();
+            submit(entry(level, event.getFormattedMessage(), logger.substring(logger.lastIndexOf('.') + 1)));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.AutomatedTravelApp.travel.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolls log_entries older than app.logs.retention-days off the table, oldest
+ * first, in chunks of app.logs.retention.batch-size rows per transaction so a
+ * large backlog never holds long locks. Each chunk takes its ERROR rows off the
+ * error_buckets counts in the same transaction, dropping buckets that reach zero;
+ * buckets not seen since the cutoff are dropped too.
+ */
+@Slf4j
+@Component
+public class LogRetention {
+
+    private static final String SELECT_CHUNK = """
+            select id, level, message from log_entries where created_at < ? order by created_at limit ?""";
+    private static final String DECREMENT_BUCKET = """
+            update error_buckets set occurrences = occurrences - ? where message_hash = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    public LogRetention(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${app.logs.retention-days:30}") long retentionDays,
+                        @Value("${app.logs.retention.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = Duration.ofDays(retentionDays);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.logs.retention.cron:0 15 3 * * *}")
+    public void rollOff() {
+        purgeBefore(Instant.now().minus(retention));
+    }
+
+    /** Deletes everything older than cutoff; returns the number of log rows removed. */
+    public long purgeBefore(Instant cutoff) {
+        Timestamp ts = Timestamp.from(cutoff);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteChunk(ts));
+            total += deleted;
+        } while (deleted == batchSize);
+
+        int buckets = transactionTemplate.execute(status ->
+                jdbcTemplate.update("delete from error_buckets where last_occurred < ?", ts));
+        if (total > 0 || buckets > 0) {
+            log.info("Log retention removed {} entries and {} error buckets older than {}", total, buckets, cutoff);
+        }
+        return total;
+    }
+
+    private int deleteChunk(Timestamp cutoff) {
+        List<Long> ids = new ArrayList<>();
+        Map<String, Integer> errors = new HashMap<>();
+        jdbcTemplate.query(SELECT_CHUNK, rs -> {
+            ids.add(rs.getLong(1));
+            if ("ERROR".equals(rs.getString(2))) {
+                errors.merge(LogIngestor.messageHash(rs.getString(3)), 1, Integer::sum);
+            }
+        }, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("delete from log_entries where id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+
+        // Same bookkeeping as AdminService.deleteLog, one row update per distinct message.
+        List<Map.Entry<String, Integer>> buckets = new ArrayList<>(errors.entrySet());
+        jdbcTemplate.batchUpdate(DECREMENT_BUCKET, buckets, buckets.size(), (ps, b) -> {
+            ps.setInt(1, b.getValue());
+            ps.setString(2, b.getKey());
+        });
+        jdbcTemplate.batchUpdate("delete from error_buckets where message_hash = ? and occurrences <= 0",
+                buckets, buckets.size(), (ps, b) -> ps.setString(1, b.getKey()));
+        return ids.size();
+    }
+}
@@ -0,0 +1,22 @@
+-- Activity and ItineraryDay moved from IDENTITY ids to pooled sequences with
+-- allocationSize = 50 so their rows can be batch-inserted. The pooled optimizer
+-- needs the sequences to step by 50, and ddl-auto=update never alters an
+-- existing sequence. Databases created by Hibernate after the switch already
+-- have INCREMENT BY 50, and on an empty database there is nothing to change.
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['itinerary_days', 'activities'] LOOP
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = t
+                     AND column_name = 'id'
+                     AND is_identity = 'YES') THEN
+            -- Identity sequences are altered through their column.
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 50', t);
+        ELSIF to_regclass(t || '_id_seq') IS NOT NULL THEN
+            EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_id_seq');
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,117 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.dto.LogRow;
+import com.AutomatedTravelApp.travel.model.LogEntry;
+import com.AutomatedTravelApp.travel.service.AdminService;
+import com.AutomatedTravelApp.travel.service.AdminSummaryCache;
+import com.AutomatedTravelApp.travel.service.LogIngestor;
+import com.AutomatedTravelApp.travel.service.LogRetention;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AdminService.class, AdminSummaryCache.class})
+class AdminLogsTest {
+
+    @Autowired
+    private AdminService adminService;
+
+    @MockitoBean
+    private LogIngestor logIngestor;
+
+    @MockitoBean
+    private GenerationMetrics generationMetrics;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Instant base = Instant.parse("2025-09-01T00:00:00Z");
+
+    private void seed() {
+        for (int i = 0; i < 10; i++) {
+            em.persist(LogEntry.builder()
+                    .level(i % 2 == 0 ? "ERROR" : "INFO")
+                    .message("m" + i)
+                    .source(i < 5 ? "API" : "DB")
+                    .createdAt(base.plusSeconds(i / 2)) // pairs share a timestamp
+                    .build());
+        }
+        em.flush();
+    }
+
+    @Test
+    void keysetPagesWalkAllRowsNewestFirstWithFilters() {
+        seed();
+
+        List<String> seen = new ArrayList<>();
+        List<LogRow> page = adminService.logs(null, 3, null, null);
+        while (!page.isEmpty()) {
+            page.forEach(r -> seen.add(r.getMessage()));
+            page = adminService.logs(page.get(page.size() - 1).getId(), 3, null, null);
+        }
+        assertEquals(List.of("m9", "m8", "m7", "m6", "m5", "m4", "m3", "m2", "m1", "m0"), seen);
+
+        List<LogRow> errors = adminService.logs(null, 10, "error", "API");
+        assertEquals(List.of("m4", "m2", "m0"), errors.stream().map(LogRow::getMessage).toList());
+        assertTrue(errors.stream().allMatch(r -> r.getLevel().equals("Error")));
+    }
+
+    @Test
+    void retentionDeletesOldRowsInChunks() {
+        seed();
+        var retention = new LogRetention(jdbcTemplate, new TransactionTemplate(transactionManager), 30, 3);
+
+        assertEquals(6, retention.purgeBefore(base.plus(Duration.ofSeconds(3))));
+        assertEquals(4, jdbcTemplate.queryForObject("select count(*) from log_entries", Long.class));
+    }
+
+    @Test
+    void retentionTakesDeletedErrorsOffTheirBuckets() {
+        var ingestor = new LogIngestor(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), 10, 10, "WARN");
+        for (int i = 0; i < 3; i++) {
+            ingestor.submit(LogIngestor.entry("ERROR", "Gemini timeout", "API", null));
+        }
+        ingestor.submit(LogIngestor.entry("ERROR", "DB down", "DB", null));
+        ingestor.submit(LogIngestor.entry("INFO", "started", "API", null));
+        ingestor.flush();
+        // Age everything but one timeout past the cutoff; both buckets were seen recently.
+        jdbcTemplate.update("update log_entries set created_at = ?", Timestamp.from(base));
+        jdbcTemplate.update("update log_entries set created_at = ? where id = (select max(id) from log_entries"
+                + " where message = 'Gemini timeout')", Timestamp.from(base.plus(Duration.ofDays(1))));
+        jdbcTemplate.update("update error_buckets set last_occurred = ?", Timestamp.from(base.plus(Duration.ofDays(1))));
+
+        var retention = new LogRetention(jdbcTemplate, new TransactionTemplate(transactionManager), 30, 2);
+        assertEquals(4, retention.purgeBefore(base.plus(Duration.ofHours(1))));
+
+        assertEquals(List.of("Gemini timeout=1"), jdbcTemplate.query(
+                "select message, occurrences from error_buckets", (rs, i) -> rs.getString(1) + "=" + rs.getLong(2)));
+    }
+}
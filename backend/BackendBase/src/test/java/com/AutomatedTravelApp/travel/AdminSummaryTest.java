@@ -0,0 +1,80 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.dto.AdminSummary;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.model.User;
+import com.AutomatedTravelApp.travel.service.AdminService;
+import com.AutomatedTravelApp.travel.service.AdminSummaryCache;
+import com.AutomatedTravelApp.travel.service.LogIngestor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AdminService.class, AdminSummaryCache.class})
+class AdminSummaryTest {
+
+    @Autowired
+    private AdminService adminService;
+
+    @MockitoBean
+    private LogIngestor logIngestor;
+
+    @MockitoBean
+    private GenerationMetrics generationMetrics;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private void trip(User user, String destination) {
+        em.persist(Trip.builder()
+                .user(user)
+                .destination(destination)
+                .startDate(LocalDate.of(2025, 9, 1))
+                .endDate(LocalDate.of(2025, 9, 3))
+                .build());
+    }
+
+    @Test
+    void summaryUsesAggregatesAndIsServedFromSnapshot() {
+        User active = em.persist(User.builder().email("a@test.com").passwordHash("x").build());
+        em.persist(User.builder().email("b@test.com").passwordHash("x").banned(true).build());
+        trip(active, "Muscat");
+        trip(active, " muscat ");
+        trip(active, "Salalah");
+        em.flush();
+        em.clear();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        AdminSummary summary = adminService.summary();
+        assertEquals(2, summary.getDestinations());
+        assertEquals(2, summary.getTotalUsers());
+        assertEquals(1, summary.getActiveUsers());
+        assertNotNull(summary.getAsOf());
+        assertEquals(0, stats.getEntityLoadCount(), "no Trip/User entities should be loaded");
+
+        long statements = stats.getPrepareStatementCount();
+        assertSame(summary, adminService.summary());
+        assertEquals(statements, stats.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.dto.UserRow;
+import com.AutomatedTravelApp.travel.model.User;
+import com.AutomatedTravelApp.travel.service.AdminService;
+import com.AutomatedTravelApp.travel.service.AdminSummaryCache;
+import com.AutomatedTravelApp.travel.service.LogIngestor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AdminService.class, AdminSummaryCache.class})
+class AdminUsersTest {
+
+    @Autowired
+    private AdminService adminService;
+
+    @MockitoBean
+    private LogIngestor logIngestor;
+
+    @MockitoBean
+    private GenerationMetrics generationMetrics;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void pagesSearchesAndFiltersWithoutLoadingEntities() {
+        for (int i = 1; i <= 7; i++) {
+            em.persist(User.builder()
+                    .email("user" + i + "@test.com")
+                    .name(i == 3 ? "Salim Al Harthy" : "User " + i)
+                    .passwordHash("x")
+                    .banned(i % 3 == 0)
+                    .build());
+        }
+        em.flush();
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<String> emails = new ArrayList<>();
+        List<UserRow> page = adminService.users(null, 3, null, null);
+        while (!page.isEmpty()) {
+            page.forEach(r -> emails.add(r.getEmail()));
+            page = adminService.users(page.get(page.size() - 1).getId(), 3, null, null);
+        }
+        assertEquals(7, emails.size());
+        assertEquals("user1@test.com", emails.get(0));
+        assertEquals(0, stats.getEntityLoadCount());
+
+        List<UserRow> found = adminService.users(null, null, "  SALIM ", null);
+        assertEquals(1, found.size());
+        assertEquals("BANNED", found.get(0).getStatus());
+
+        assertEquals(2, adminService.users(null, null, null, "banned").size());
+        assertEquals(5, adminService.users(null, null, "@test.com", "ACTIVE").size());
+        assertThrows(IllegalArgumentException.class, () -> adminService.users(null, null, null, "gone"));
+    }
+}
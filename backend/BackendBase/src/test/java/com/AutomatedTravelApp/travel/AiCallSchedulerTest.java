@@ -0,0 +1,82 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiCallContext;
+import com.AutomatedTravelApp.travel.ai.AiCallContext.Priority;
+import com.AutomatedTravelApp.travel.ai.AiCallScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiCallSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void interactiveCallsAreAdmittedBeforeBackgroundWork() throws Exception {
+        var scheduler = new AiCallScheduler(registry, 1, 60_000, 100, 5_000);
+        scheduler.acquire(new AiCallContext(Priority.INTERACTIVE, "holder"));
+
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        threads.add(waitFor(scheduler, new AiCallContext(Priority.PREFETCH, "p"), "prefetch", admitted, Priority.PREFETCH, 1));
+        threads.add(waitFor(scheduler, new AiCallContext(Priority.BATCH, "b"), "batch", admitted, Priority.BATCH, 1));
+        threads.add(waitFor(scheduler, new AiCallContext(Priority.INTERACTIVE, "i"), "interactive", admitted, Priority.INTERACTIVE, 1));
+
+        scheduler.release();
+        for (Thread t : threads) t.join(5_000);
+
+        assertEquals(List.of("interactive", "batch", "prefetch"), admitted);
+    }
+
+    @Test
+    void usersTakeTurnsWithinAPriority() throws Exception {
+        var scheduler = new AiCallScheduler(registry, 1, 60_000, 100, 5_000);
+        scheduler.acquire(new AiCallContext(Priority.BATCH, "holder"));
+
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            threads.add(waitFor(scheduler, new AiCallContext(Priority.BATCH, "heavy"), "heavy" + i, admitted, Priority.BATCH, i));
+        }
+        threads.add(waitFor(scheduler, new AiCallContext(Priority.BATCH, "light"), "light", admitted, Priority.BATCH, 4));
+
+        scheduler.release();
+        for (Thread t : threads) t.join(5_000);
+
+        assertEquals(List.of("heavy1", "light", "heavy2", "heavy3"), admitted);
+    }
+
+    @Test
+    void rateLimitRejectsCallsThatCannotGetATokenInTime() {
+        var scheduler = new AiCallScheduler(registry, 8, 1, 1, 100);
+        var context = new AiCallContext(Priority.INTERACTIVE, "u");
+
+        scheduler.acquire(context);
+        scheduler.release();
+
+        assertThrows(IllegalStateException.class, () -> scheduler.acquire(context));
+        assertEquals(1.0, registry.get("ai.scheduler.rejected").counter().count());
+    }
+
+    /** Starts a thread that acquires, records its name and releases; returns once it is queued. */
+    private Thread waitFor(AiCallScheduler scheduler, AiCallContext context, String name,
+                           List<String> admitted, Priority queue, int expectedDepth) throws InterruptedException {
+        Thread t = new Thread(() -> {
+            scheduler.acquire(context);
+            admitted.add(name);
+            scheduler.release();
+        });
+        t.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (registry.get("ai.scheduler.queue.depth").tag("priority", queue.name()).gauge().value() < expectedDepth) {
+            assertTrue(System.currentTimeMillis() < deadline, "waiter never queued");
+            Thread.sleep(5);
+        }
+        return t;
+    }
+}
@@ -0,0 +1,101 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiResponseCache;
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.model.TravelInterest;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiResponseCacheTest {
+
+    private final AiResponseCache cache = new AiResponseCache(new GenerationMetrics(new SimpleMeterRegistry()), 100, 60, 100, 5000);
+
+    private Trip trip(String destination, LocalDate start, int budget) {
+        return Trip.builder()
+                .destination(destination)
+                .startDate(start)
+                .endDate(start.plusDays(3))
+                .budgetAmount(BigDecimal.valueOf(budget))
+                .interests(Set.of(TravelInterest.BEACH, TravelInterest.HISTORY))
+                .build();
+    }
+
+    @Test
+    void sameInputsDifferentDatesReuseOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Callable<String> loader = () -> "{\"n\":" + calls.incrementAndGet() + "}";
+
+        String first = cache.get(trip("Muscat", LocalDate.of(2025, 9, 1), 1020), TravelStyle.COMFORT, loader);
+        String second = cache.get(trip("  muscat ", LocalDate.of(2025, 10, 5), 1080), TravelStyle.COMFORT, loader);
+        cache.get(trip("Muscat", LocalDate.of(2025, 9, 1), 1020), TravelStyle.LUXURY, loader);
+
+        assertEquals(first, second);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShareOneInFlightCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> slowLoader = () -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "{}";
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(trip("Muscat", LocalDate.of(2025, 9, 1), 500),
+                        TravelStyle.BUDGET, slowLoader)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> f : results) {
+                assertEquals("{}", f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void failedCallIsNotCached() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Trip t = trip("Salalah", LocalDate.of(2025, 9, 1), 800);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(t, TravelStyle.COMFORT, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("quota");
+        }));
+        assertEquals("{}", cache.get(t, TravelStyle.COMFORT, () -> {
+            calls.incrementAndGet();
+            return "{}";
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void anErrorInTheLoaderStillReleasesTheEntry() throws Exception {
+        Trip t = trip("Sur", LocalDate.of(2025, 9, 1), 800);
+
+        assertThrows(OutOfMemoryError.class, () -> cache.get(t, TravelStyle.COMFORT, () -> {
+            throw new OutOfMemoryError("boom");
+        }));
+        assertEquals("{}", cache.get(t, TravelStyle.COMFORT, () -> "{}"));
+    }
+}
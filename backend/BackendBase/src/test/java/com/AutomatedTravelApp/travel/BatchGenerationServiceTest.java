@@ -0,0 +1,91 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.dto.BatchGenerationJob;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.dto.GenerationJob;
+import com.AutomatedTravelApp.travel.model.TravelInterest;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.service.BatchGenerationService;
+import com.AutomatedTravelApp.travel.service.ItineraryService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BatchGenerationServiceTest {
+
+    private final ItineraryService itineraryService = mock(ItineraryService.class);
+    private final AtomicLong tripIds = new AtomicLong();
+
+    private BatchGenerationService service(int persistSize) {
+        // Runs items inline so the batch is finished when submit returns.
+        return new BatchGenerationService(itineraryService, Runnable::run, 6000, 10, 50, persistSize, 30);
+    }
+
+    private void stubPlanAndPersist() {
+        when(itineraryService.plan(any())).thenAnswer(inv ->
+                new ItineraryService.Planned(tripIds.incrementAndGet(), inv.getArgument(0), null));
+        when(itineraryService.persistAll(anyList())).thenAnswer(inv -> {
+            List<ItineraryService.Planned> plans = inv.getArgument(0);
+            return plans.stream().map(p -> new GenerateItineraryResponse(p.tripId(), "ok")).toList();
+        });
+    }
+
+    @Test
+    void identicalRequestsAreGeneratedOnceAndShareTheResult() {
+        stubPlanAndPersist();
+
+        BatchGenerationJob batch = service(10).submit(List.of(request("Muscat"), request("Nizwa"), request("Muscat")));
+
+        verify(itineraryService, times(2)).plan(any());
+        verify(itineraryService, times(1)).persistAll(anyList());
+        assertEquals(GenerationJob.Status.DONE, batch.getStatus());
+        assertEquals(3, batch.getTotal());
+        assertEquals(2, batch.getUnique());
+        assertEquals(3, batch.getDone());
+        BatchGenerationJob.Item dup = batch.getItems().get(2);
+        assertEquals(0, dup.getDuplicateOf());
+        assertEquals(batch.getItems().get(0).getItineraryId(), dup.getItineraryId());
+    }
+
+    @Test
+    void persistsInGroupsAndIsolatesFailures() {
+        stubPlanAndPersist();
+        when(itineraryService.plan(argThat(r -> r != null && "Sur".equals(r.getDestination()))))
+                .thenThrow(new IllegalStateException("boom"));
+
+        BatchGenerationJob batch = service(2).submit(List.of(
+                request("Muscat"), request("Nizwa"), request("Sur"), request("Salalah"), request("Khasab")));
+
+        // Groups of two, then the leftover once planning is over.
+        verify(itineraryService, times(2)).persistAll(argThat(l -> l.size() == 2));
+        assertEquals(4, batch.getDone());
+        assertEquals(1, batch.getFailed());
+        assertEquals(GenerationJob.Status.FAILED, batch.getItems().get(2).getStatus());
+        assertEquals("boom", batch.getItems().get(2).getError());
+    }
+
+    @Test
+    void rejectsOversizedBatches() {
+        var service = new BatchGenerationService(itineraryService, Runnable::run, 6000, 10, 2, 10, 30);
+        assertThrows(IllegalArgumentException.class,
+                () -> service.submit(List.of(request("A"), request("B"), request("C"))));
+        assertThrows(IllegalArgumentException.class, () -> service.submit(List.of()));
+    }
+
+    private static GenerateItineraryRequest request(String destination) {
+        var req = new GenerateItineraryRequest();
+        req.setDestination(destination);
+        req.setDays(2);
+        req.setTravelStyle(TravelStyle.COMFORT);
+        req.setInterests(Set.of(TravelInterest.BEACH));
+        return req;
+    }
+}
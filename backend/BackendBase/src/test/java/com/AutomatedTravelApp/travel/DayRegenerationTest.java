@@ -0,0 +1,167 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiClient;
+import com.AutomatedTravelApp.travel.ai.AiResponseCache;
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.ai.HedgedAiCaller;
+import com.AutomatedTravelApp.travel.ai.LocalItineraryEngine;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.*;
+import com.AutomatedTravelApp.travel.repository.ActivityRepository;
+import com.AutomatedTravelApp.travel.repository.ItineraryDayRepository;
+import com.AutomatedTravelApp.travel.service.ItineraryMapper;
+import com.AutomatedTravelApp.travel.service.ItineraryReplanner;
+import com.AutomatedTravelApp.travel.service.ItineraryResponseCache;
+import com.AutomatedTravelApp.travel.service.ItineraryService;
+import com.AutomatedTravelApp.travel.service.ItineraryTemplateStore;
+import com.AutomatedTravelApp.travel.service.ItineraryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ItineraryService.class, ItineraryMapper.class, ItineraryWriter.class, DayRegenerationTest.Metrics.class})
+class DayRegenerationTest {
+
+    private static final String NEW_DAY = """
+            {"days": [{"date": "02-09-2025", "dayCost": 30,
+              "activities": [{"name": "Wadi hike", "start": "08:00", "end": "11:00", "cost": 10},
+                             {"name": "Souq dinner", "start": "19:00", "end": "20:30", "cost": 20}]}]}
+            """;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        GenerationMetrics generationMetrics() {
+            return new GenerationMetrics(new SimpleMeterRegistry());
+        }
+    }
+
+    @Autowired
+    private ItineraryService itineraryService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ItineraryDayRepository dayRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockitoBean(name = "aiClient")
+    private AiClient aiClient;
+
+    @MockitoBean
+    private LocalItineraryEngine localEngine;
+
+    @MockitoBean
+    private HedgedAiCaller hedgedAiCaller;
+
+    @MockitoBean
+    private AiResponseCache aiResponseCache;
+
+    @MockitoBean
+    private ItineraryTemplateStore templateStore;
+
+    @MockitoBean
+    private ItineraryResponseCache responseCache;
+
+    @MockitoBean
+    private ItineraryReplanner replanner;
+
+    private Trip trip;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User user = em.persist(User.builder().email("regen@test.com").passwordHash("x").build());
+        trip = em.persist(Trip.builder()
+                .user(user)
+                .destination("Muscat")
+                .startDate(LocalDate.of(2025, 9, 1))
+                .endDate(LocalDate.of(2025, 9, 3))
+                .travelStyle(TravelStyle.COMFORT)
+                .build());
+        for (int d = 1; d <= 3; d++) {
+            ItineraryDay day = ItineraryDay.builder().trip(trip).dayNumber(d).build();
+            for (int p = 1; p <= 2; p++) {
+                day.getActivities().add(Activity.builder().itineraryDay(day).position(p).name(d + "." + p).build());
+            }
+            em.persist(day);
+        }
+        em.flush();
+        em.clear();
+
+        when(hedgedAiCaller.call(any(), any())).thenAnswer(inv ->
+                new HedgedAiCaller.Outcome(inv.<Callable<String>>getArgument(0).call(), false));
+    }
+
+    @Test
+    void onlyTheSelectedDayIsReplaced() throws Exception {
+        when(aiClient.generateDaysJson(any(), any(), eq(List.of(2)), any())).thenReturn(NEW_DAY);
+        List<Long> day1Before = activityIds(1);
+        List<Long> day3Before = activityIds(3);
+
+        GenerateItineraryResponse res = itineraryService.regenerateDays(trip.getId(), List.of(2));
+
+        assertEquals("Days regenerated by AI", res.getMessage());
+        assertEquals(List.of("Wadi hike", "Souq dinner"), names(2));
+        assertEquals(day1Before, activityIds(1));
+        assertEquals(day3Before, activityIds(3));
+        // The prompt only carries the other days as context.
+        verify(aiClient).generateDaysJson(any(), eq(TravelStyle.COMFORT), eq(List.of(2)),
+                eq(Map.of(1, List.of("1.1", "1.2"), 3, List.of("3.1", "3.2"))));
+        verify(responseCache).evict(trip.getId());
+    }
+
+    @Test
+    void fallsBackToTheLocalEngineWhenTheAiFails() throws Exception {
+        when(aiClient.generateDaysJson(any(), any(), any(), any())).thenThrow(new IllegalStateException("quota"));
+        when(localEngine.generateDaysJson(any(), any(), eq(List.of(2)), any())).thenReturn(NEW_DAY);
+
+        GenerateItineraryResponse res = itineraryService.regenerateDays(trip.getId(), List.of(2));
+
+        assertEquals("Days regenerated locally (AI unavailable)", res.getMessage());
+        assertEquals(List.of("Wadi hike", "Souq dinner"), names(2));
+    }
+
+    @Test
+    void unknownDayIsRejectedBeforeAnyAiCall() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> itineraryService.regenerateDays(trip.getId(), List.of(7)));
+        verify(hedgedAiCaller, never()).call(any(), any());
+    }
+
+    private List<Long> activityIds(int dayNumber) {
+        return activityRepository.findIdsByDayId(
+                dayRepository.findByTripIdAndDayNumber(trip.getId(), dayNumber).orElseThrow().getId());
+    }
+
+    private List<String> names(int dayNumber) {
+        em.clear();
+        ItineraryDay day = dayRepository.findByTripIdAndDayNumber(trip.getId(), dayNumber).orElseThrow();
+        return activityRepository.findByItineraryDayOrderByPosition(day).stream().map(Activity::getName).toList();
+    }
+}
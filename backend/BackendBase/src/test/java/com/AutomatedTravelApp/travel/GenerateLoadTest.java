@@ -0,0 +1,113 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiClient;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires REQUESTS concurrent POST /api/itineraries/generate at a real server
+ * whose AiClient answers after AI_LATENCY_MS, asserts every one was served by
+ * the AI path, and logs throughput and p99. The Gemini admission limits are
+ * opened up so the request threads, not the scheduler, are what is measured.
+ * Subclasses pick the threading mode. The numbers depend on the machine's
+ * cores, so they are reported rather than held to a fixed bound.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.ai.templates.enabled=false",
+        "app.ai.hedge.enabled=false",
+        "app.ai.deadline-ms=120000",
+        "app.ai.gemini.max-concurrency=2000",
+        "app.ai.gemini.rate-per-minute=1000000",
+        "app.ai.gemini.rate-burst=2000",
+        "app.ai.gemini.acquire-timeout-ms=120000",
+        "app.ai.call-executor.max-size=1000",
+        "app.ai.call-executor.queue-capacity=1000",
+        "logging.level.org.springframework.http.converter.json=WARN",
+        "logging.level.com.fasterxml.jackson.databind=WARN"})
+@ActiveProfiles("test")
+abstract class GenerateLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerateLoadTest.class);
+
+    static final int REQUESTS = 1000;
+    static final long AI_LATENCY_MS = 200;
+
+    private static final String AI_DAYS = """
+            {"days": [{"date": "01-09-2025", "activities": [{"name": "Grand Mosque", "start": "09:00", "end": "11:00", "cost": 10}]},
+                      {"date": "02-09-2025", "activities": [{"name": "Corniche", "start": "17:00", "end": "18:00", "cost": 5}]},
+                      {"date": "03-09-2025", "activities": [{"name": "Souq", "start": "17:00", "end": "19:00", "cost": 20}]}]}
+            """;
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private AiClient aiClient;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+    @Test
+    void concurrentGenerateRequests() throws Exception {
+        when(aiClient.generateItineraryJson(any(), any())).thenAnswer(inv -> {
+            Thread.sleep(AI_LATENCY_MS);
+            return AI_DAYS;
+        });
+        // Creates the shared demo user before the burst.
+        assertEquals(200, send(0).join().statusCode());
+
+        List<CompletableFuture<Long>> latencies = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 1; i <= REQUESTS; i++) {
+            long sent = System.nanoTime();
+            latencies.add(send(i).thenApply(res -> {
+                assertEquals(200, res.statusCode(), res.body());
+                assertTrue(res.body().contains("Itinerary generated by AI"), res.body());
+                return System.nanoTime() - sent;
+            }));
+        }
+        CompletableFuture.allOf(latencies.toArray(CompletableFuture[]::new)).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> sorted = latencies.stream().map(CompletableFuture::join).sorted().toList();
+        double p99Ms = sorted.get((int) Math.ceil(REQUESTS * 0.99) - 1) / 1e6;
+        log.info("{}: {} requests in {} s, {} req/s, p99 {} ms", mode(), REQUESTS,
+                String.format("%.2f", seconds), String.format("%.0f", REQUESTS / seconds),
+                String.format("%.0f", p99Ms));
+
+        assertTrue(p99Ms >= AI_LATENCY_MS, () -> "p99 " + p99Ms + " ms is below the stubbed AI latency");
+    }
+
+    /** Threading mode under test, for the report. */
+    abstract String mode();
+
+    private CompletableFuture<HttpResponse<String>> send(int i) {
+        // A different destination per request, so the AI response cache never shares a call.
+        String body = """
+                {"destination": "Load-%d", "startDate": "01-09-2025", "endDate": "03-09-2025",
+                 "travelStyle": "COMFORT", "budget": 1000, "interests": ["FOOD"]}""".formatted(i);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/itineraries/generate"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
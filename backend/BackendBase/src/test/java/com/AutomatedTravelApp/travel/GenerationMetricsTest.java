@@ -0,0 +1,80 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics.Stage;
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GenerationMetrics metrics = new GenerationMetrics(registry);
+
+    @Test
+    void p95IsMissingUntilTheStageHasSamples() {
+        assertEquals(-1, metrics.p95Millis(Stage.GEMINI));
+
+        for (int i = 1; i <= 20; i++) {
+            metrics.timer(Stage.GEMINI).record(Duration.ofMillis(i * 100L));
+        }
+
+        long p95 = metrics.p95Millis(Stage.GEMINI);
+        assertTrue(p95 >= 1500 && p95 <= 2200, "p95 was " + p95);
+        assertEquals(-1, metrics.p95Millis(Stage.PARSE));
+    }
+
+    @Test
+    void countsCacheLookupsAndServingPaths() {
+        metrics.cacheLookup(true);
+        metrics.cacheLookup(false);
+        metrics.cacheLookup(false);
+        metrics.served("placeholder");
+        metrics.itinerarySize(3, 12);
+
+        assertEquals(1, registry.get("ai.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(2, registry.get("ai.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(1, registry.get("itinerary.generation.result").tag("source", "placeholder").counter().count());
+        assertEquals(12, registry.get("itinerary.activities").summary().totalAmount());
+    }
+
+    @Test
+    void servingPathAndSizeLandOnTheOpenSpan() {
+        List<Observation.Context> stopped = new ArrayList<>();
+        ObservationRegistry observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        GenerationMetrics traced = new GenerationMetrics(registry, observations);
+
+        traced.observation("itinerary.generate").observe(() -> {
+            traced.served("local");
+            traced.itinerarySize(4, 9);
+        });
+        traced.served("ai"); // no open span: metrics only
+
+        assertEquals(1, stopped.size());
+        Observation.Context span = stopped.get(0);
+        assertEquals("itinerary.generate", span.getName());
+        assertEquals(KeyValue.of("itinerary.source", "local"), span.getLowCardinalityKeyValue("itinerary.source"));
+        assertEquals("4", span.getHighCardinalityKeyValue("itinerary.days").getValue());
+        assertEquals("9", span.getHighCardinalityKeyValue("itinerary.activities").getValue());
+    }
+}
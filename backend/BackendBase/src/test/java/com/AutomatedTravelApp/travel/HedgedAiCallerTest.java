@@ -0,0 +1,101 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.HedgedAiCaller;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedAiCallerTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    HedgedAiCallerTest() {
+        executor.setCorePoolSize(4);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static Callable<String> after(long millis, String value) {
+        return () -> {
+            Thread.sleep(millis);
+            return value;
+        };
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() throws Exception {
+        var caller = new HedgedAiCaller(executor, 2000, 2000, true, 200, 50);
+        AtomicInteger hedges = new AtomicInteger();
+
+        var outcome = caller.call(after(10, "primary"), () -> {
+            hedges.incrementAndGet();
+            return "hedge";
+        });
+
+        assertEquals("primary", outcome.value());
+        assertFalse(outcome.hedged());
+        Thread.sleep(300);
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    void slowPrimaryIsBeatenByHedge() throws Exception {
+        var caller = new HedgedAiCaller(executor, 2000, 2000, true, 100, 50);
+
+        long start = System.nanoTime();
+        var outcome = caller.call(after(1500, "primary"), after(10, "hedge"));
+
+        assertEquals("hedge", outcome.value());
+        assertTrue(outcome.hedged());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+    }
+
+    @Test
+    void losingPrimaryIsNotInterrupted() throws Exception {
+        var caller = new HedgedAiCaller(executor, 2000, 2000, true, 100, 50);
+        CountDownLatch primaryDone = new CountDownLatch(1);
+
+        var outcome = caller.call(() -> {
+            Thread.sleep(500);
+            primaryDone.countDown();
+            return "primary";
+        }, after(10, "hedge"));
+
+        assertEquals("hedge", outcome.value());
+        // The primary may be a shared cache load other requests are waiting on.
+        assertTrue(primaryDone.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void deadlineBoundsTheCall() {
+        var caller = new HedgedAiCaller(executor, 300, 300, true, 100, 50);
+
+        long start = System.nanoTime();
+        assertThrows(TimeoutException.class, () -> caller.call(after(5000, "primary"), after(5000, "hedge")));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+    }
+
+    @Test
+    void failureIsReportedWithoutWaitingForTheDeadline() {
+        var caller = new HedgedAiCaller(executor, 5000, 5000, true, 1000, 50);
+
+        long start = System.nanoTime();
+        var e = assertThrows(IllegalStateException.class, () -> caller.call(() -> {
+            throw new IllegalStateException("GEMINI_API_KEY missing");
+        }, after(10, "hedge")));
+        assertEquals("GEMINI_API_KEY missing", e.getMessage());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+    }
+}
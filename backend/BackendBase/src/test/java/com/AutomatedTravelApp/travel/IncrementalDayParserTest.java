@@ -0,0 +1,63 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.ai.IncrementalDayParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalDayParserTest {
+
+    private static final String JSON = """
+            ```json
+            {
+              "itineraryId": "days",
+              "days": [
+                {"date": "01-09-2025", "activities": [
+                  {"id": "A1", "name": "Souq {night} walk", "start": "18:00", "end": "20:00", "cost": 5}
+                ], "dayCost": 5},
+                {"date": "02-09-2025", "activities": [
+                  {"id": "A2", "name": "Say \\"hi\\" ] at Wadi Shab", "start": "07:00", "end": "12:00", "cost": 10}
+                ], "dayCost": 10}
+              ],
+              "totalCost": 315,
+              "hotel": {"id": "H1", "name": "Days Inn", "cost": 200}
+            }
+            ```""";
+
+    @Test
+    void emitsEachDayAsSoonAsItCloses() {
+        List<AiItineraryJson.AiDay> days = new ArrayList<>();
+        List<Integer> dayNumbers = new ArrayList<>();
+        IncrementalDayParser parser = new IncrementalDayParser(new ObjectMapper(), (day, dayNumber) -> {
+            days.add(day);
+            dayNumbers.add(dayNumber);
+        });
+
+        int firstDayEnd = JSON.indexOf("\"dayCost\": 5}") + "\"dayCost\": 5}".length();
+        for (int i = 0; i < JSON.length(); i += 7) {
+            parser.accept(JSON.substring(i, Math.min(JSON.length(), i + 7)));
+            if (i + 7 < firstDayEnd) {
+                assertTrue(days.isEmpty());
+            }
+        }
+
+        assertEquals(2, days.size());
+        assertEquals(2, parser.emitted());
+        assertEquals(List.of(1, 2), dayNumbers);
+        assertEquals("Souq {night} walk", days.get(0).getActivities().get(0).getName());
+        assertEquals("Say \"hi\" ] at Wadi Shab", days.get(1).getActivities().get(0).getName());
+        assertEquals(10.0, days.get(1).getDayCost());
+    }
+
+    @Test
+    void wholeDocumentInOneChunk() {
+        List<AiItineraryJson.AiDay> days = new ArrayList<>();
+        new IncrementalDayParser(new ObjectMapper(), (day, dayNumber) -> days.add(day)).accept(JSON);
+        assertEquals(2, days.size());
+    }
+}
@@ -3,6 +3,12 @@ package com.AutomatedTravelApp.travel;
 import com.AutomatedTravelApp.travel.controller.ItineraryController;
 import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
 import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.dto.GenerationJob;
+import com.AutomatedTravelApp.travel.dto.BatchGenerationJob;
+import com.AutomatedTravelApp.travel.dto.ItineraryDelta;
+import com.AutomatedTravelApp.travel.service.BatchGenerationService;
+import com.AutomatedTravelApp.travel.service.GenerationJobService;
+import com.AutomatedTravelApp.travel.service.ItineraryEditService;
 import com.AutomatedTravelApp.travel.service.ItineraryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,9 +20,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import com.AutomatedTravelApp.travel.repository.UserRepository;
 import com.AutomatedTravelApp.travel.security.JwtService;
+import com.AutomatedTravelApp.travel.security.PrincipalCache;
+import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,12 +41,24 @@ class ItineraryControllerTest {
     @MockitoBean
     private ItineraryService itineraryService;
 
+    @MockitoBean
+    private GenerationJobService generationJobService;
+
+    @MockitoBean
+    private BatchGenerationService batchGenerationService;
+
+    @MockitoBean
+    private ItineraryEditService itineraryEditService;
+
     @MockitoBean
     private JwtService jwtService;
 
     @MockitoBean
     private UserRepository userRepository;
 
+    @MockitoBean
+    private PrincipalCache principalCache;
+
     @Test
     void health_ok() throws Exception {
         mockMvc.perform(get("/api/itineraries/health"))
@@ -80,4 +102,85 @@ class ItineraryControllerTest {
                 .andExpect(jsonPath("$.itineraryId").value(1))
                 .andExpect(jsonPath("$.message").value("Found"));
     }
+
+    @Test
+    void generateAsync_returnsJobId() throws Exception {
+        when(generationJobService.submit(any(GenerateItineraryRequest.class)))
+                .thenReturn(GenerationJob.builder().jobId("job-1").status(GenerationJob.Status.QUEUED).build());
+
+        String body = """
+                {
+                  "destination": "Muscat",
+                  "days": 3,
+                  "travelStyle": "COMFORT",
+                  "interests": ["BEACH"]
+                }
+                """;
+
+        mockMvc.perform(post("/api/itineraries/generate/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void generateBatch_accepted() throws Exception {
+        when(batchGenerationService.submit(any()))
+                .thenReturn(BatchGenerationJob.builder().batchId("b1").status(GenerationJob.Status.QUEUED).total(2).build());
+
+        String body = """
+                [
+                  {"destination": "Muscat", "days": 2, "travelStyle": "COMFORT", "interests": ["BEACH"]},
+                  {"destination": "Nizwa", "days": 3, "travelStyle": "BUDGET", "interests": ["HISTORY"]}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/itineraries/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.batchId").value("b1"))
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    void generateBatch_invalidItem_badRequest() throws Exception {
+        String body = """
+                [{"days": 2, "travelStyle": "COMFORT", "interests": ["BEACH"]}]
+                """;
+
+        mockMvc.perform(post("/api/itineraries/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void moveActivity_returnsDelta() throws Exception {
+        when(itineraryEditService.moveActivity(eq(7L), eq(42L), any())).thenReturn(ItineraryDelta.builder()
+                .itineraryId(7L)
+                .activityId(42L)
+                .days(List.of(new ItineraryDelta.DayActivities(3L, 1, List.of(42L, 41L))))
+                .build());
+
+        mockMvc.perform(patch("/api/itineraries/7/activities/42/position")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"position\": 1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days[0].activityIds[0]").value(42))
+                .andExpect(jsonPath("$.itineraryDays").doesNotExist());
+    }
+
+    @Test
+    void moveActivity_unknownActivity_notFound() throws Exception {
+        when(itineraryEditService.moveActivity(eq(7L), eq(99L), any()))
+                .thenThrow(new IllegalArgumentException("Activity not found: 99"));
+
+        mockMvc.perform(patch("/api/itineraries/7/activities/99/position")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dayNumber\": 2}"))
+                .andExpect(status().isNotFound());
+    }
 }
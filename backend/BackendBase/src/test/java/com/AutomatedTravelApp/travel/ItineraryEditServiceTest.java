@@ -0,0 +1,151 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.dto.ActivityRequest;
+import com.AutomatedTravelApp.travel.dto.ItineraryDelta;
+import com.AutomatedTravelApp.travel.dto.MoveRequest;
+import com.AutomatedTravelApp.travel.model.*;
+import com.AutomatedTravelApp.travel.repository.ActivityRepository;
+import com.AutomatedTravelApp.travel.repository.ItineraryDayRepository;
+import com.AutomatedTravelApp.travel.service.ItineraryEditService;
+import com.AutomatedTravelApp.travel.service.ItineraryResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ItineraryEditService.class)
+class ItineraryEditServiceTest {
+
+    @Autowired
+    private ItineraryEditService editService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ItineraryDayRepository dayRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockitoBean
+    private ItineraryResponseCache responseCache;
+
+    private Trip trip;
+
+    /** Three days with activities "d.p" at positions 1..3. */
+    @BeforeEach
+    void setUp() {
+        User user = em.persist(User.builder().email("edit@test.com").passwordHash("x").build());
+        trip = em.persist(Trip.builder()
+                .user(user)
+                .destination("Muscat")
+                .startDate(LocalDate.of(2025, 9, 1))
+                .endDate(LocalDate.of(2025, 9, 3))
+                .travelStyle(TravelStyle.COMFORT)
+                .build());
+        for (int d = 1; d <= 3; d++) {
+            ItineraryDay day = ItineraryDay.builder().trip(trip).dayNumber(d).build();
+            for (int p = 1; p <= 3; p++) {
+                day.getActivities().add(Activity.builder().itineraryDay(day).position(p).name(d + "." + p).build());
+            }
+            em.persist(day);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void activitiesAreInsertedReorderedAndMovedAcrossDays() {
+        ActivityRequest add = new ActivityRequest();
+        add.setName("new");
+        add.setPosition(2);
+        ItineraryDelta added = editService.addActivity(trip.getId(), 1, add);
+        assertEquals(List.of("1.1", "new", "1.2", "1.3"), names(1));
+        assertEquals(4, added.getDays().get(0).getActivityIds().size());
+
+        Long last = activityIdAt(1, 4);
+        editService.moveActivity(trip.getId(), last, move(null, 1));
+        assertEquals(List.of("1.3", "1.1", "new", "1.2"), names(1));
+
+        ItineraryDelta moved = editService.moveActivity(trip.getId(), activityIdAt(1, 1), move(2, 2));
+        assertEquals(List.of("1.1", "new", "1.2"), names(1));
+        assertEquals(List.of("2.1", "1.3", "2.2", "2.3"), names(2));
+        assertEquals(2, moved.getDays().size());
+
+        editService.deleteActivity(trip.getId(), activityIdAt(2, 1));
+        assertEquals(List.of("1.3", "2.2", "2.3"), names(2));
+        assertPositionsContiguous(1, 2);
+        verify(responseCache, times(4)).evict(trip.getId());
+    }
+
+    @Test
+    void daysAreInsertedMovedAndDeletedWithoutBreakingDayNumbers() {
+        ItineraryDelta added = editService.addDay(trip.getId(), move(1, null));
+        assertEquals(4, added.getDayOrder().size());
+        assertEquals(added.getDayId(), added.getDayOrder().get(0));
+        assertEquals(LocalDate.of(2025, 9, 4), added.getEndDate());
+        assertEquals(List.of(), names(1));
+        assertEquals(List.of("1.1", "1.2", "1.3"), names(2));
+
+        editService.moveDay(trip.getId(), 4, move(2, null));
+        assertEquals(List.of("3.1", "3.2", "3.3"), names(2));
+        assertEquals(List.of("1.1", "1.2", "1.3"), names(3));
+        assertEquals(List.of("2.1", "2.2", "2.3"), names(4));
+
+        ItineraryDelta deleted = editService.deleteDay(trip.getId(), 1);
+        assertEquals(3, deleted.getDayOrder().size());
+        assertEquals(LocalDate.of(2025, 9, 3), deleted.getEndDate());
+        assertEquals(List.of("3.1", "3.2", "3.3"), names(1));
+        assertEquals(List.of("2.1", "2.2", "2.3"), names(3));
+    }
+
+    @Test
+    void unknownActivityIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> editService.deleteActivity(trip.getId(), Long.MAX_VALUE));
+    }
+
+    private List<String> names(int dayNumber) {
+        em.clear();
+        ItineraryDay day = dayRepository.findByTripIdAndDayNumber(trip.getId(), dayNumber).orElseThrow();
+        return activityRepository.findByItineraryDayOrderByPosition(day).stream().map(Activity::getName).toList();
+    }
+
+    private Long activityIdAt(int dayNumber, int position) {
+        ItineraryDay day = dayRepository.findByTripIdAndDayNumber(trip.getId(), dayNumber).orElseThrow();
+        return activityRepository.findIdsByDayId(day.getId()).get(position - 1);
+    }
+
+    private void assertPositionsContiguous(int... dayNumbers) {
+        for (int dayNumber : dayNumbers) {
+            ItineraryDay day = dayRepository.findByTripIdAndDayNumber(trip.getId(), dayNumber).orElseThrow();
+            List<Activity> activities = activityRepository.findByItineraryDayOrderByPosition(day);
+            for (int i = 0; i < activities.size(); i++) {
+                assertEquals(i + 1, activities.get(i).getPosition());
+            }
+        }
+    }
+
+    private static MoveRequest move(Integer dayNumber, Integer position) {
+        MoveRequest req = new MoveRequest();
+        req.setDayNumber(dayNumber);
+        req.setPosition(position);
+        return req;
+    }
+}
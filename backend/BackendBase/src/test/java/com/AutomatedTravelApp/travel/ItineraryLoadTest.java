@@ -0,0 +1,80 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.model.*;
+import com.AutomatedTravelApp.travel.repository.ItineraryDayRepository;
+import com.AutomatedTravelApp.travel.repository.TripRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ItineraryLoadTest {
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private ItineraryDayRepository dayRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void fullItineraryLoadsInTwoQueriesRegardlessOfLength() {
+        User user = em.persist(User.builder().email("load@test.com").passwordHash("x").build());
+        Trip trip = em.persist(Trip.builder()
+                .user(user)
+                .destination("Muscat")
+                .startDate(LocalDate.of(2025, 9, 1))
+                .endDate(LocalDate.of(2025, 9, 14))
+                .travelStyle(TravelStyle.BUDGET)
+                .budgetBreakdown(Map.of("hotel", 300.0, "flight", 350.0, "activity", 350.0))
+                .interests(Set.of(TravelInterest.BEACH, TravelInterest.FOOD))
+                .build());
+        for (int d = 1; d <= 14; d++) {
+            ItineraryDay day = ItineraryDay.builder().trip(trip).dayNumber(d).build();
+            for (int p = 3; p >= 1; p--) {
+                day.getActivities().add(Activity.builder().itineraryDay(day).position(p).name("A" + d + "." + p).build());
+            }
+            em.persist(day);
+        }
+        em.flush();
+        em.clear();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        Trip loaded = tripRepository.findWithDetailsById(trip.getId()).orElseThrow();
+        List<ItineraryDay> days = dayRepository.findWithActivitiesByTripId(trip.getId());
+        List<Activity> activities = days.stream().flatMap(d -> d.getActivities().stream()).toList();
+        int breakdownSize = loaded.getBudgetBreakdown().size();
+        int interestCount = loaded.getInterests().size();
+        activities.forEach(a -> a.getItineraryDay().getDayNumber());
+
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals(14, days.size());
+        assertEquals(42, activities.size());
+        assertEquals(3, breakdownSize);
+        assertEquals(2, interestCount);
+        assertEquals(1, days.get(0).getActivities().get(0).getPosition());
+        assertEquals(14, days.get(13).getDayNumber());
+    }
+}
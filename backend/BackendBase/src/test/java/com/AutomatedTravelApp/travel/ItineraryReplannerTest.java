@@ -0,0 +1,153 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.LocalItineraryEngine;
+import com.AutomatedTravelApp.travel.model.Activity;
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import com.AutomatedTravelApp.travel.model.ItineraryDay;
+import com.AutomatedTravelApp.travel.model.TravelInterest;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.CatalogActivityRepository;
+import com.AutomatedTravelApp.travel.service.ItineraryReplanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItineraryReplannerTest {
+
+    private final CatalogActivityRepository repository = mock(CatalogActivityRepository.class);
+    private final ItineraryReplanner replanner = new ItineraryReplanner(new LocalItineraryEngine(repository, ForkJoinPool.commonPool(), 30));
+
+    @BeforeEach
+    void givenCatalog() {
+        List<CatalogActivity> muscat = List.of(
+                catalog("Grand Mosque", 120, 3),
+                catalog("Corniche Walk", 90, 4),
+                catalog("Nizwa Fort", 180, 5),
+                catalog("Souq Shopping", 120, 5));
+        when(repository.findByDestinationIgnoreCaseOrderByIdAsc(anyString()))
+                .thenAnswer(inv -> "muscat".equals(inv.getArgument(0)) ? muscat : List.of());
+    }
+
+    @Test
+    void switchingToLuxuryTrimsDaysToItsPacingAndBudget() {
+        Trip trip = trip(TravelStyle.LUXURY, 120);
+        List<ItineraryDay> days = days(trip, 3, 3, 30);
+
+        ItineraryReplanner.Result result = replanner.replan(trip, days, true);
+
+        // 2 activities/day, day 3 is a rest day, 60 per active day.
+        assertEquals(List.of("1.1", "1.2"), names(days.get(0)));
+        assertEquals(List.of("2.1", "2.2"), names(days.get(1)));
+        assertEquals(List.of(), names(days.get(2)));
+        assertEquals(new ItineraryReplanner.Result(4, 5, 0), result);
+    }
+
+    @Test
+    void aBudgetChangeKeepsTheActivitiesOfRestDays() {
+        Trip trip = trip(TravelStyle.LUXURY, 1000);
+        List<ItineraryDay> days = days(trip, 3, 2, 30);
+
+        replanner.replan(trip, days, false);
+
+        // Day 3 is a LUXURY rest day, but the style didn't change.
+        assertEquals(List.of("3.1", "3.2"), names(days.get(2)));
+    }
+
+    @Test
+    void aBiggerBudgetFillsDaysFromTheCatalogWithoutRepeats() {
+        Trip trip = trip(TravelStyle.BUDGET, 1000);
+        List<ItineraryDay> days = days(trip, 2, 1, 30);
+
+        ItineraryReplanner.Result result = replanner.replan(trip, days, false);
+
+        Set<String> seen = new HashSet<>();
+        for (ItineraryDay day : days) {
+            List<Activity> activities = day.getActivities();
+            assertEquals(day.getDayNumber() + ".1", activities.get(0).getName(), "own activity stays first");
+            assertTrue(activities.size() <= 3);
+            assertTrue(activities.stream().mapToInt(Activity::getDurationMinutes).sum() <= 420);
+            for (int i = 0; i < activities.size(); i++) {
+                assertEquals(i + 1, activities.get(i).getPosition());
+                assertTrue(seen.add(activities.get(i).getName()), "repeated " + activities.get(i).getName());
+            }
+        }
+        assertEquals(2, result.kept());
+        assertEquals(4, result.added());
+    }
+
+    @Test
+    void anActivityOverTheNewBudgetIsSwappedForACheaperOne() {
+        Trip trip = trip(TravelStyle.COMFORT, 50);
+        List<ItineraryDay> days = days(trip, 1, 1, 200);
+
+        replanner.replan(trip, days, false);
+
+        List<Activity> activities = days.get(0).getActivities();
+        assertFalse(names(days.get(0)).contains("1.1"));
+        assertFalse(activities.isEmpty());
+        assertTrue(activities.stream().mapToDouble(a -> a.getCostAmount().doubleValue()).sum() <= 50);
+    }
+
+    private static Trip trip(TravelStyle style, double activityBudget) {
+        return Trip.builder()
+                .destination("Muscat")
+                .startDate(LocalDate.of(2025, 9, 1))
+                .endDate(LocalDate.of(2025, 9, 3))
+                .budgetAmount(BigDecimal.valueOf(1000))
+                .budgetBreakdown(Map.of("activity", activityBudget))
+                .travelStyle(style)
+                .interests(Set.of())
+                .peopleCount(2)
+                .build();
+    }
+
+    /** Days 1..count, each with `perDay` activities "d.p" of 60 minutes costing `cost`. */
+    private static List<ItineraryDay> days(Trip trip, int count, int perDay, double cost) {
+        List<ItineraryDay> days = new ArrayList<>();
+        for (int d = 1; d <= count; d++) {
+            ItineraryDay day = ItineraryDay.builder().trip(trip).dayNumber(d).build();
+            for (int p = 1; p <= perDay; p++) {
+                day.getActivities().add(Activity.builder()
+                        .itineraryDay(day)
+                        .position(p)
+                        .name(d + "." + p)
+                        .costAmount(BigDecimal.valueOf(cost))
+                        .durationMinutes(60)
+                        .build());
+            }
+            days.add(day);
+        }
+        return days;
+    }
+
+    private static CatalogActivity catalog(String name, int minutes, int score) {
+        return CatalogActivity.builder()
+                .destination("Muscat")
+                .name(name)
+                .interest(TravelInterest.HISTORY)
+                .startTime(LocalTime.of(9, 0))
+                .durationMinutes(minutes)
+                .costAmount(BigDecimal.TEN)
+                .score(score)
+                .build();
+    }
+
+    private static List<String> names(ItineraryDay day) {
+        return day.getActivities().stream().map(Activity::getName).toList();
+    }
+}
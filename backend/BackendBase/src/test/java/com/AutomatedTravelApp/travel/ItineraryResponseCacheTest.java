@@ -0,0 +1,195 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiClient;
+import com.AutomatedTravelApp.travel.ai.AiResponseCache;
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.ai.HedgedAiCaller;
+import com.AutomatedTravelApp.travel.ai.LocalItineraryEngine;
+import com.AutomatedTravelApp.travel.dto.BudgetBreakdown;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.*;
+import com.AutomatedTravelApp.travel.repository.TripRepository;
+import com.AutomatedTravelApp.travel.service.ItineraryMapper;
+import com.AutomatedTravelApp.travel.service.ItineraryReplanner;
+import com.AutomatedTravelApp.travel.service.ItineraryResponseCache;
+import com.AutomatedTravelApp.travel.service.ItineraryService;
+import com.AutomatedTravelApp.travel.service.ItineraryTemplateStore;
+import com.AutomatedTravelApp.travel.service.ItineraryWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ItineraryService.class, ItineraryMapper.class, ItineraryWriter.class, ItineraryResponseCacheTest.Caches.class})
+class ItineraryResponseCacheTest {
+
+    @TestConfiguration
+    static class Caches {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        GenerationMetrics generationMetrics(MeterRegistry meterRegistry) {
+            return new GenerationMetrics(meterRegistry);
+        }
+
+        @Bean
+        ItineraryResponseCache itineraryResponseCache(MeterRegistry meterRegistry) {
+            return new ItineraryResponseCache(meterRegistry, 100, 10);
+        }
+    }
+
+    @Autowired
+    private ItineraryService itineraryService;
+
+    @Autowired
+    private ItineraryResponseCache responseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockitoSpyBean
+    private TripRepository tripRepository;
+
+    @MockitoBean(name = "aiClient")
+    private AiClient aiClient;
+
+    @MockitoBean
+    private LocalItineraryEngine localEngine;
+
+    @MockitoBean
+    private HedgedAiCaller hedgedAiCaller;
+
+    @MockitoBean
+    private AiResponseCache aiResponseCache;
+
+    @MockitoBean
+    private ItineraryTemplateStore templateStore;
+
+    @MockitoBean
+    private ItineraryReplanner replanner;
+
+    private Trip trip;
+    private double hitsBefore;
+    private double missesBefore;
+
+    @BeforeEach
+    void setUp() {
+        User user = em.persist(User.builder().email("cache@test.com").passwordHash("x").build());
+        trip = em.persist(Trip.builder()
+                .user(user)
+                .destination("Muscat")
+                .startDate(LocalDate.of(2025, 9, 1))
+                .endDate(LocalDate.of(2025, 9, 2))
+                .travelStyle(TravelStyle.COMFORT)
+                .budgetAmount(BigDecimal.valueOf(1000))
+                .budgetBreakdown(new LinkedHashMap<>(Map.of("flight", 400.0, "hotel", 350.0, "activity", 250.0)))
+                .build());
+        ItineraryDay day = ItineraryDay.builder().trip(trip).dayNumber(1).build();
+        day.getActivities().add(Activity.builder().itineraryDay(day).position(1).name("Grand Mosque").build());
+        em.persist(day);
+        em.flush();
+        em.clear();
+        clearInvocations(tripRepository);
+        // The cache and its meters are shared by the tests in this context.
+        hitsBefore = count("hit");
+        missesBefore = count("miss");
+    }
+
+    @Test
+    void aSecondGetByIdIsServedFromTheCache() {
+        GenerateItineraryResponse first = itineraryService.getById(trip.getId());
+        GenerateItineraryResponse second = itineraryService.getById(trip.getId());
+
+        assertSame(first, second);
+        verify(tripRepository, times(1)).findWithDetailsById(trip.getId());
+        assertEquals(1.0, count("miss") - missesBefore);
+        assertEquals(1.0, count("hit") - hitsBefore);
+    }
+
+    @Test
+    void updateEvictsTheCachedResponse() {
+        itineraryService.getById(trip.getId());
+
+        GenerateItineraryRequest req = new GenerateItineraryRequest();
+        req.setDestination("Salalah");
+        itineraryService.updateItinerary(trip.getId(), req);
+
+        assertTrue(responseCache.getIfPresent(trip.getId()).isEmpty());
+        double misses = count("miss");
+        assertEquals("Salalah", itineraryService.getById(trip.getId()).getDestination());
+        assertEquals(1.0, count("miss") - misses);
+    }
+
+    @Test
+    void evictionIsRepeatedAfterCommitSoARacingReadCannotKeepTheOldState() {
+        var tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        tx.executeWithoutResult(status -> {
+            responseCache.evict(trip.getId());
+            // A concurrent read re-caches the pre-commit state.
+            responseCache.get(trip.getId(), id -> new GenerateItineraryResponse());
+            assertTrue(responseCache.getIfPresent(trip.getId()).isPresent());
+        });
+
+        assertTrue(responseCache.getIfPresent(trip.getId()).isEmpty());
+    }
+
+    @Test
+    void budgetOnAColdCacheUsesTheNarrowQuery() {
+        BudgetBreakdown budget = itineraryService.getBudget(trip.getId());
+
+        assertEquals(400.0, budget.flightCost);
+        assertEquals(350.0, budget.hotelCost);
+        assertEquals(250.0, budget.activityCost);
+        verify(tripRepository).findBudgetBreakdown(trip.getId());
+        verify(tripRepository, never()).findWithDetailsById(any());
+        assertTrue(responseCache.getIfPresent(trip.getId()).isEmpty());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "itinerary.responses")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiClient;
+import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.TripRepository;
+import com.AutomatedTravelApp.travel.service.ItineraryTemplateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ItineraryTemplateStoreTest {
+
+    // Three days, 10 per person per activity, flight 100 and hotel 300 for one person.
+    private static final String TEMPLATE = """
+            {"itineraryId": "T", "days": [
+              {"date": "01-01-2025", "activities": [{"name": "Fort", "start": "09:00", "end": "11:00", "cost": 10}]},
+              {"date": "02-01-2025", "activities": [{"name": "Souq", "start": "10:00", "end": "12:00", "cost": 10}]},
+              {"date": "03-01-2025", "activities": [{"name": "Beach", "start": "09:00", "end": "13:00", "cost": 10}]}
+            ],
+             "flight": {"id": "F1", "cost": 100}, "hotel": {"id": "H1", "name": "Inn", "cost": 300}}
+            """;
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final AiClient aiClient = mock(AiClient.class);
+    private final ItineraryTemplateStore store = new ItineraryTemplateStore(
+            tripRepository, aiClient, Runnable::run, new SimpleMeterRegistry(), true, 10, List.of(3), 150);
+
+    @Test
+    void refreshWarmsEveryStyleAndAdaptsWithoutCallingTheAi() throws Exception {
+        when(tripRepository.findTopDestinations(any())).thenReturn(List.of("Muscat"));
+        when(aiClient.generateItineraryJson(any(), any())).thenReturn(TEMPLATE);
+
+        store.refresh();
+        verify(aiClient, times(TravelStyle.values().length)).generateItineraryJson(any(), any());
+
+        // Two people, two days, 300 per person per day: twice the reference budget.
+        Trip trip = trip(" muscat ", LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 11), 2, 1200);
+        AiItineraryJson adapted = store.adapt(trip).orElseThrow();
+
+        verifyNoMoreInteractions(aiClient);
+        assertEquals(2, adapted.getDays().size());
+        assertEquals("10-03-2026", adapted.getDays().get(0).getDate());
+        assertEquals("11-03-2026", adapted.getDays().get(1).getDate());
+        assertEquals("Fort", adapted.getDays().get(0).getActivities().get(0).getName());
+        assertEquals(40.0, adapted.getDays().get(0).getActivities().get(0).getCost()); // 10 x 2 people x 2.0
+        assertEquals(200.0, adapted.getFlight().getCost());                            // 100 x 2 people
+        assertEquals(400.0, adapted.getHotel().getCost());                             // 300 x 2/3 nights x 2.0 x 1 room
+        assertEquals(680.0, adapted.getTotalCost());
+    }
+
+    @Test
+    void missesForUnknownDestinationsAndTripsLongerThanAnyBucket() throws Exception {
+        when(tripRepository.findTopDestinations(any())).thenReturn(List.of("Muscat"));
+        when(aiClient.generateItineraryJson(any(), any())).thenReturn(TEMPLATE);
+        store.refresh();
+
+        assertTrue(store.adapt(trip("Nizwa", LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 11), 1, 300)).isEmpty());
+        assertTrue(store.adapt(trip("Muscat", LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 15), 1, 900)).isEmpty());
+    }
+
+    private static Trip trip(String destination, LocalDate start, LocalDate end, int people, double budget) {
+        return Trip.builder()
+                .destination(destination)
+                .startDate(start)
+                .endDate(end)
+                .travelStyle(TravelStyle.COMFORT)
+                .peopleCount(people)
+                .budgetAmount(BigDecimal.valueOf(budget))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.model.*;
+import com.AutomatedTravelApp.travel.service.ItineraryWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ItineraryWriter.class)
+class ItineraryWriterTest {
+
+    private static final int DAYS = 30;
+    private static final int ACTIVITIES_PER_DAY = 4;
+
+    @Autowired
+    private ItineraryWriter writer;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void largeItineraryIsWrittenInBatches() {
+        User user = em.persist(User.builder().email("batch@test.com").passwordHash("x").build());
+        Trip trip = em.persist(Trip.builder()
+                .user(user)
+                .destination("Muscat")
+                .startDate(LocalDate.of(2025, 9, 1))
+                .endDate(LocalDate.of(2025, 9, DAYS))
+                .travelStyle(TravelStyle.COMFORT)
+                .build());
+        em.flush();
+
+        List<ItineraryDay> days = new ArrayList<>();
+        for (int d = 1; d <= DAYS; d++) {
+            ItineraryDay day = ItineraryDay.builder().dayNumber(d).build();
+            for (int p = 1; p <= ACTIVITIES_PER_DAY; p++) {
+                day.getActivities().add(Activity.builder()
+                        .position(p)
+                        .name("Activity " + d + "." + p)
+                        .costAmount(BigDecimal.TEN)
+                        .durationMinutes(60)
+                        .build());
+            }
+            days.add(day);
+        }
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        writer.saveDays(trip, days);
+
+        int rows = DAYS + DAYS * ACTIVITIES_PER_DAY;
+        assertEquals(rows, stats.getEntityInsertCount());
+        // One statement per row before batching (150 here); now a few sequence
+        // fetches plus one prepared insert per batch of 50.
+        assertTrue(stats.getPrepareStatementCount() <= 12,
+                "expected batched inserts, got " + stats.getPrepareStatementCount() + " statements for " + rows + " rows");
+    }
+}
@@ -0,0 +1,45 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.security.JwtService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+
+    @Test
+    void verifiesAndCachesValidToken() {
+        var jwt = new JwtService(SECRET, 60_000, 100);
+        String token = jwt.generateToken("a@b.com", "USER");
+
+        assertEquals(Optional.of("a@b.com"), jwt.verifiedEmail(token));
+        assertEquals(Optional.of("a@b.com"), jwt.verifiedEmail(token));
+        assertTrue(jwt.isValid(token));
+        assertEquals("a@b.com", jwt.extractEmail(token));
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        var jwt = new JwtService(SECRET, 60_000, 100);
+        String token = jwt.generateToken("a@b.com", "USER");
+        String foreign = new JwtService(SECRET + "-other", 60_000, 100).generateToken("a@b.com", "ADMIN");
+
+        assertTrue(jwt.verifiedEmail(token.substring(0, token.length() - 2) + "xx").isEmpty());
+        assertTrue(jwt.verifiedEmail(foreign).isEmpty());
+        assertTrue(jwt.verifiedEmail("not-a-jwt").isEmpty());
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws Exception {
+        var jwt = new JwtService(SECRET, 1500, 100);
+        String token = jwt.generateToken("a@b.com", "USER");
+        assertTrue(jwt.isValid(token));
+
+        Thread.sleep(2500); // exp is stored at second precision
+        assertFalse(jwt.isValid(token));
+    }
+}
@@ -0,0 +1,124 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.ai.LocalItineraryEngine;
+import com.AutomatedTravelApp.travel.ai.PacingRules;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import com.AutomatedTravelApp.travel.model.TravelInterest;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.CatalogActivityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LocalItineraryEngineTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CatalogActivityRepository repository = mock(CatalogActivityRepository.class);
+    private final LocalItineraryEngine engine = new LocalItineraryEngine(repository, ForkJoinPool.commonPool(), 30);
+
+    private static CatalogActivity activity(String name, TravelInterest interest, String start,
+                                            int minutes, int score) {
+        return CatalogActivity.builder()
+                .destination("Muscat")
+                .name(name)
+                .interest(interest)
+                .startTime(LocalTime.parse(start))
+                .durationMinutes(minutes)
+                .costAmount(BigDecimal.TEN)
+                .score(score)
+                .build();
+    }
+
+    private Trip trip(TravelStyle style, int days, Set<TravelInterest> interests) {
+        LocalDate start = LocalDate.of(2025, 9, 1);
+        return Trip.builder()
+                .destination("Muscat, Oman")
+                .startDate(start)
+                .endDate(start.plusDays(days - 1))
+                .budgetAmount(BigDecimal.valueOf(1000))
+                .travelStyle(style)
+                .interests(interests)
+                .peopleCount(2)
+                .build();
+    }
+
+    private AiItineraryJson plan(Trip trip) throws Exception {
+        var responseData = new GenerateItineraryResponse();
+        responseData.setTravelStyle(trip.getTravelStyle());
+        return objectMapper.readValue(engine.generateItineraryJson(trip, responseData), AiItineraryJson.class);
+    }
+
+    private void givenCatalog() {
+        List<CatalogActivity> muscat = List.of(
+                activity("Grand Mosque", TravelInterest.HISTORY, "09:00", 120, 3),
+                activity("Corniche Walk", TravelInterest.BEACH, "10:00", 90, 4),
+                activity("Nizwa Fort", TravelInterest.HISTORY, "08:30", 180, 5),
+                activity("Wadi Shab Hike", TravelInterest.NATURE, "07:00", 300, 8),
+                activity("Marina Relax", TravelInterest.RELAXATION, "15:00", 120, 6),
+                activity("Souq Shopping", TravelInterest.SHOPPING, "14:00", 120, 5));
+        when(repository.findByDestinationIgnoreCaseOrderByIdAsc(anyString()))
+                .thenAnswer(inv -> "muscat".equals(inv.getArgument(0)) ? muscat : List.of());
+    }
+
+    @Test
+    void respectsPacingLimitsAndRestDays() throws Exception {
+        givenCatalog();
+        AiItineraryJson itinerary = plan(trip(TravelStyle.LUXURY, 6, Set.of()));
+
+        PacingRules rules = PacingRules.LUXURY;
+        assertEquals(6, itinerary.getDays().size());
+        assertEquals("01-09-2025", itinerary.getDays().get(0).getDate());
+        for (int i = 0; i < itinerary.getDays().size(); i++) {
+            var activities = itinerary.getDays().get(i).getActivities();
+            if (rules.isRestDay(i + 1)) {
+                assertTrue(activities.isEmpty(), "day " + (i + 1) + " should be a rest day");
+                continue;
+            }
+            assertFalse(activities.isEmpty());
+            assertTrue(activities.size() <= rules.maxActivities());
+            long minutes = activities.stream()
+                    .mapToLong(a -> Duration.between(LocalTime.parse(a.getStart()), LocalTime.parse(a.getEnd())).toMinutes())
+                    .sum();
+            assertTrue(minutes <= rules.maxMinutes());
+            // Cost is per person.
+            activities.forEach(a -> assertEquals(20.0, a.getCost()));
+        }
+    }
+
+    @Test
+    void prefersTripInterestsAndIsDeterministic() throws Exception {
+        givenCatalog();
+        Trip trip = trip(TravelStyle.COMFORT, 1, Set.of(TravelInterest.HISTORY));
+
+        AiItineraryJson first = plan(trip);
+        List<String> names = first.getDays().get(0).getActivities().stream().map(AiItineraryJson.AiActivity::getName).toList();
+        assertTrue(names.containsAll(List.of("Grand Mosque", "Nizwa Fort")), names.toString());
+
+        assertEquals(objectMapper.writeValueAsString(first), objectMapper.writeValueAsString(plan(trip)));
+        // Catalog is read once per destination.
+        verify(repository, times(1)).findByDestinationIgnoreCaseOrderByIdAsc("muscat, oman");
+        verify(repository, times(1)).findByDestinationIgnoreCaseOrderByIdAsc("muscat");
+    }
+
+    @Test
+    void unknownDestinationFails() {
+        when(repository.findByDestinationIgnoreCaseOrderByIdAsc(anyString())).thenReturn(List.of());
+        Trip trip = trip(TravelStyle.BUDGET, 2, Set.of());
+        trip.setDestination("Atlantis");
+        assertThrows(IllegalStateException.class, () -> plan(trip));
+    }
+}
@@ -0,0 +1,73 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.model.LogEntry;
+import com.AutomatedTravelApp.travel.service.LogIngestor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class LogIngestorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static LogEntry entry(String level, String message) {
+        return LogEntry.builder().level(level).message(message).source("Test").build();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    @Test
+    void batchesEntriesMaintainsRollupAndAccountsForDrops() {
+        var meters = new SimpleMeterRegistry();
+        var ingestor = new LogIngestor(jdbcTemplate, new TransactionTemplate(transactionManager), meters, 3, 2, "WARN");
+
+        assertTrue(ingestor.submit(entry("ERROR", "Gemini timeout")));
+        assertTrue(ingestor.submit(entry("INFO", "started")));
+        assertTrue(ingestor.submit(entry("ERROR", "Gemini timeout")));
+        assertFalse(ingestor.submit(entry("ERROR", "Gemini timeout")));
+        assertEquals(1.0, meters.counter("logs.ingest.dropped").count());
+
+        // 3 queued + 1 "Dropped 1 log entries" warning, written in batches of 2.
+        assertEquals(4, ingestor.flush());
+        assertEquals(4, count("select count(*) from log_entries"));
+        assertEquals(1, count("select count(*) from log_entries where level = 'WARNING' and message like 'Dropped 1 %'"));
+        assertEquals(2, count("select occurrences from error_buckets"));
+
+        ingestor.submit(entry("ERROR", "Gemini timeout"));
+        ingestor.submit(entry("ERROR", "DB down"));
+        assertEquals(2, ingestor.flush());
+        assertEquals(3, count("select occurrences from error_buckets where message = 'Gemini timeout'"));
+        assertEquals(1, count("select occurrences from error_buckets where message = 'DB down'"));
+        assertEquals(0, ingestor.flush());
+    }
+
+    @Test
+    void oversizedEntryIsCutToTheColumnsInsteadOfFailingItsBatch() {
+        var ingestor = new LogIngestor(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), 10, 10, "WARN");
+
+        ingestor.submit(entry("INFO", "fine"));
+        ingestor.submit(LogIngestor.entry("INFO".repeat(10), "x".repeat(5000), "s".repeat(100),
+                "a".repeat(200) + "@test.com"));
+
+        assertEquals(2, ingestor.flush());
+        assertEquals(1000, count("select max(length(message)) from log_entries"));
+    }
+}
@@ -0,0 +1,13 @@
+package com.AutomatedTravelApp.travel;
+
+import org.springframework.test.context.TestPropertySource;
+
+/** GenerateLoadTest on Tomcat's default pool of 200 platform threads. */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadLoadTest extends GenerateLoadTest {
+
+    @Override
+    String mode() {
+        return "platform threads";
+    }
+}
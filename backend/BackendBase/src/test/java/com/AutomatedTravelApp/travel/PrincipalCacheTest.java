@@ -0,0 +1,43 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.model.Role;
+import com.AutomatedTravelApp.travel.model.User;
+import com.AutomatedTravelApp.travel.repository.UserRepository;
+import com.AutomatedTravelApp.travel.security.PrincipalCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final PrincipalCache cache = new PrincipalCache(users, 60, 100);
+
+    @Test
+    void loadsOnceAndReloadsAfterEvict() {
+        User user = User.builder().email("a@b.com").passwordHash("x").role(Role.USER).build();
+        when(users.findByEmail("a@b.com")).thenReturn(Optional.of(user));
+
+        assertFalse(cache.get("a@b.com").orElseThrow().banned());
+        cache.get("a@b.com");
+        verify(users, times(1)).findByEmail("a@b.com");
+
+        user.setBanned(true);
+        assertFalse(cache.get("a@b.com").orElseThrow().banned()); // still cached
+        cache.evict("a@b.com");
+        assertTrue(cache.get("a@b.com").orElseThrow().banned());
+        verify(users, times(2)).findByEmail("a@b.com");
+    }
+
+    @Test
+    void unknownUserIsNotCached() {
+        when(users.findByEmail("x@b.com")).thenReturn(Optional.empty());
+
+        assertTrue(cache.get("x@b.com").isEmpty());
+        assertTrue(cache.get("x@b.com").isEmpty());
+        verify(users, times(2)).findByEmail("x@b.com");
+    }
+}
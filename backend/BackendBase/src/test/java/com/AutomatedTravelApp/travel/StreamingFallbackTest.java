@@ -0,0 +1,160 @@
+package com.AutomatedTravelApp.travel;
+
+import com.AutomatedTravelApp.travel.ai.AiClient;
+import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.ai.AiResponseCache;
+import com.AutomatedTravelApp.travel.ai.GenerationMetrics;
+import com.AutomatedTravelApp.travel.ai.HedgedAiCaller;
+import com.AutomatedTravelApp.travel.ai.LocalItineraryEngine;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryRequest;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.service.ItineraryMapper;
+import com.AutomatedTravelApp.travel.service.ItineraryReplanner;
+import com.AutomatedTravelApp.travel.service.ItineraryResponseCache;
+import com.AutomatedTravelApp.travel.service.ItineraryService;
+import com.AutomatedTravelApp.travel.service.ItineraryTemplateStore;
+import com.AutomatedTravelApp.travel.service.ItineraryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ItineraryService.class, ItineraryMapper.class, ItineraryWriter.class, StreamingFallbackTest.Metrics.class})
+class StreamingFallbackTest {
+
+    private static final String AI_DAYS = """
+            {"days": [{"date": "01-09-2025", "activities": [{"name": "Grand Mosque", "start": "09:00", "end": "11:00"}]},
+                      {"date": "02-09-2025", "activities": [{"name": "Corniche", "start": "17:00", "end": "18:00"}]},
+            """;
+
+    private static final String LOCAL = """
+            {"days": [{"date": "01-09-2025", "activities": [{"name": "Nizwa Fort", "start": "09:00", "end": "12:00"}]},
+                      {"date": "02-09-2025", "activities": [{"name": "Souq", "start": "17:00", "end": "19:00"}]},
+                      {"date": "03-09-2025", "activities": [{"name": "Wadi Shab", "start": "08:00", "end": "13:00"}]}]}
+            """;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        GenerationMetrics generationMetrics() {
+            return new GenerationMetrics(new SimpleMeterRegistry());
+        }
+    }
+
+    @Autowired
+    private ItineraryService itineraryService;
+
+    @MockitoBean(name = "aiClient")
+    private AiClient aiClient;
+
+    @MockitoBean
+    private LocalItineraryEngine localEngine;
+
+    @MockitoBean
+    private HedgedAiCaller hedgedAiCaller;
+
+    @MockitoBean
+    private AiResponseCache aiResponseCache;
+
+    @MockitoBean
+    private ItineraryTemplateStore templateStore;
+
+    @MockitoBean
+    private ItineraryResponseCache responseCache;
+
+    @MockitoBean
+    private ItineraryReplanner replanner;
+
+    @Test
+    void aStreamThatTimesOutPartWayIsResetBeforeTheLocalDays() throws Exception {
+        when(aiClient.streamItineraryJson(any(), any(), any())).thenAnswer(inv -> {
+            inv.<Consumer<String>>getArgument(2).accept(AI_DAYS);
+            return AI_DAYS;
+        });
+        when(aiResponseCache.get(any(), any(), any())).thenAnswer(inv -> inv.<Callable<String>>getArgument(2).call());
+        // Two days arrive, then the stream deadline passes.
+        when(hedgedAiCaller.stream(any())).thenAnswer(inv -> {
+            inv.<Callable<String>>getArgument(0).call();
+            throw new TimeoutException();
+        });
+        when(localEngine.generateItineraryJson(any(), any())).thenReturn(LOCAL);
+
+        List<String> events = new ArrayList<>();
+        GenerateItineraryResponse res = itineraryService.generateStreaming(request(), new ItineraryService.DayListener() {
+            @Override
+            public void day(int dayNumber, AiItineraryJson.AiDay day) {
+                events.add(dayNumber + " " + day.getActivities().get(0).getName());
+            }
+
+            @Override
+            public void reset(String reason) {
+                events.add("reset: " + reason);
+            }
+        });
+
+        assertEquals(List.of("1 Grand Mosque", "2 Corniche", "reset: AI deadline exceeded",
+                "1 Nizwa Fort", "2 Souq", "3 Wadi Shab"), events);
+        assertEquals(3, res.getItineraryDays().size());
+        assertEquals("Itinerary generated locally (AI deadline exceeded)", res.getMessage());
+    }
+
+    @Test
+    void aCachedAnswerIsReplayedOnThisTripsDates() throws Exception {
+        // Cached for another trip of the same span, starting in October.
+        String cached = """
+                {"days": [{"date": "10-10-2025", "activities": [{"name": "Grand Mosque", "start": "09:00", "end": "11:00"}]},
+                          {"date": "11-10-2025", "activities": [{"name": "Corniche", "start": "17:00", "end": "18:00"}]},
+                          {"date": "12-10-2025", "activities": [{"name": "Souq", "start": "17:00", "end": "19:00"}]}],
+                 "hotel": {"name": "Chedi", "checkIn": "10-10-2025", "checkOut": "12-10-2025", "cost": 300}}
+                """;
+        when(hedgedAiCaller.stream(any())).thenReturn(new HedgedAiCaller.Outcome(cached, false));
+
+        List<String> dates = new ArrayList<>();
+        GenerateItineraryResponse res = itineraryService.generateStreaming(request(), new ItineraryService.DayListener() {
+            @Override
+            public void day(int dayNumber, AiItineraryJson.AiDay day) {
+                dates.add(dayNumber + " " + day.getDate());
+            }
+
+            @Override
+            public void reset(String reason) {
+                fail("nothing was streamed before the replay");
+            }
+        });
+
+        assertEquals(List.of("1 01-09-2025", "2 02-09-2025", "3 03-09-2025"), dates);
+        assertEquals("Itinerary generated by AI", res.getMessage());
+    }
+
+    private static GenerateItineraryRequest request() {
+        GenerateItineraryRequest req = new GenerateItineraryRequest();
+        req.setDestination("Muscat");
+        req.setStartDate(LocalDate.of(2025, 9, 1));
+        req.setEndDate(LocalDate.of(2025, 9, 3));
+        // A mutable breakdown: the whole test shares one persistence context with createTrip.
+        req.setBudgetBreakdown(new HashMap<>(Map.of("activity", 300.0)));
+        return req;
+    }
+}
@@ -0,0 +1,16 @@
+package com.AutomatedTravelApp.travel;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+/** GenerateLoadTest with Tomcat and the AI executors on virtual threads; runs in the Java 21 CI job. */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadLoadTest extends GenerateLoadTest {
+
+    @Override
+    String mode() {
+        return "virtual threads";
+    }
+}
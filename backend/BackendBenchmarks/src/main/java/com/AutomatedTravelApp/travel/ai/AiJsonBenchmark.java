@@ -0,0 +1,56 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import com.AutomatedTravelApp.travel.benchmarks.Fixtures;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU side of an AI generation: building the prompt and parsing Gemini's
+ * answer into AiItineraryJson.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AiJsonBenchmark {
+
+    @Param({"1", "7", "14", "30"})
+    int days;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AIEngine engine;
+    private Trip trip;
+    private GenerateItineraryResponse responseData;
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        engine = new AIEngine();
+        trip = Fixtures.trip(days, TravelStyle.COMFORT);
+        responseData = new GenerateItineraryResponse();
+        responseData.setTravelStyle(TravelStyle.COMFORT);
+        json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(Fixtures.aiItinerary(days));
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public AiItineraryJson parse() throws Exception {
+        return objectMapper.readValue(json, AiItineraryJson.class);
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return engine.buildItineraryPrompt(trip, responseData);
+    }
+}
@@ -0,0 +1,61 @@
+package com.AutomatedTravelApp.travel.ai;
+
+import com.AutomatedTravelApp.travel.benchmarks.Fixtures;
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import com.AutomatedTravelApp.travel.repository.CatalogActivityRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The KNN selector (selectActivitiesForDay in the KNNPacing prototype) and a full
+ * local plan with a warm catalog cache, which has to stay well under 10 ms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalItineraryEngineBenchmark {
+
+    @Param({"LUXURY", "COMFORT", "BUDGET"})
+    TravelStyle style;
+
+    @Param({"7", "30"})
+    int days;
+
+    private List<CatalogActivity> catalog;
+    private LocalItineraryEngine engine;
+    private Trip trip;
+
+    @Setup
+    public void setUp() {
+        catalog = Fixtures.catalog();
+        // Only the catalog lookup is ever called; everything else is unsupported.
+        CatalogActivityRepository repository = (CatalogActivityRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{CatalogActivityRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByDestinationIgnoreCaseOrderByIdAsc")) return catalog;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        engine = new LocalItineraryEngine(repository, 30);
+        trip = Fixtures.trip(days, style);
+        engine.plan(trip, style); // warm the catalog cache
+    }
+
+    @Benchmark
+    public List<CatalogActivity> selectForDay() {
+        return LocalItineraryEngine.selectForDay(new ArrayList<>(catalog), PacingRules.of(style));
+    }
+
+    @Benchmark
+    public AiItineraryJson plan() {
+        return engine.plan(trip, style);
+    }
+}
@@ -0,0 +1,130 @@
+package com.AutomatedTravelApp.travel.benchmarks;
+
+import com.AutomatedTravelApp.travel.ai.AiItineraryJson;
+import com.AutomatedTravelApp.travel.model.Activity;
+import com.AutomatedTravelApp.travel.model.CatalogActivity;
+import com.AutomatedTravelApp.travel.model.ItineraryDay;
+import com.AutomatedTravelApp.travel.model.TravelInterest;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Deterministic inputs shared by the benchmarks, sized like real trips. */
+public final class Fixtures {
+
+    public static final int ACTIVITIES_PER_DAY = 3;
+    public static final LocalDate START = LocalDate.of(2025, 9, 1);
+
+    private Fixtures() {}
+
+    public static Trip trip(int days, TravelStyle style) {
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        breakdown.put("hotel", 450.0);
+        breakdown.put("flight", 300.0);
+        breakdown.put("activity", 250.0);
+        return Trip.builder()
+                .id(1L)
+                .destination("Muscat")
+                .startDate(START)
+                .endDate(START.plusDays(days - 1))
+                .budgetAmount(BigDecimal.valueOf(1000))
+                .travelStyle(style)
+                .budgetBreakdown(breakdown)
+                .interests(Set.of(TravelInterest.HISTORY, TravelInterest.BEACH))
+                .peopleCount(2)
+                .build();
+    }
+
+    public static List<ItineraryDay> days(Trip trip, int count) {
+        List<ItineraryDay> days = new ArrayList<>(count);
+        for (int d = 1; d <= count; d++) {
+            ItineraryDay day = ItineraryDay.builder().trip(trip).dayNumber(d).build();
+            for (int p = 1; p <= ACTIVITIES_PER_DAY; p++) {
+                day.getActivities().add(Activity.builder()
+                        .itineraryDay(day)
+                        .position(p)
+                        .name("Activity " + d + "." + p)
+                        .location(trip.getDestination())
+                        .costAmount(BigDecimal.valueOf(12.5 * p))
+                        .startTime(LocalTime.of(8 + 3 * p, 0))
+                        .durationMinutes(120)
+                        .build());
+            }
+            days.add(day);
+        }
+        return days;
+    }
+
+    /** The AI's JSON shape with the given number of days. */
+    public static AiItineraryJson aiItinerary(int days) {
+        List<AiItineraryJson.AiDay> list = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            List<AiItineraryJson.AiActivity> activities = new ArrayList<>();
+            for (int p = 1; p <= ACTIVITIES_PER_DAY; p++) {
+                var a = new AiItineraryJson.AiActivity();
+                a.setId("A" + p);
+                a.setName("Visit the old souq and the corniche, part " + p);
+                a.setStart(String.format("%02d:00", 8 + 3 * p));
+                a.setEnd(String.format("%02d:30", 9 + 3 * p));
+                a.setCost(12.5 * p);
+                activities.add(a);
+            }
+            var day = new AiItineraryJson.AiDay();
+            day.setDate(START.plusDays(d).toString());
+            day.setActivities(activities);
+            day.setDayCost(75.0);
+            list.add(day);
+        }
+        var flight = new AiItineraryJson.AiFlight();
+        flight.setId("F1");
+        flight.setCost(300.0);
+        var hotel = new AiItineraryJson.AiHotel();
+        hotel.setId("H1");
+        hotel.setName("Corniche Hotel");
+        hotel.setCost(450.0);
+
+        var itinerary = new AiItineraryJson();
+        itinerary.setItineraryId("ITIN-1");
+        itinerary.setDays(list);
+        itinerary.setTotalCost(750.0 + 75.0 * days);
+        itinerary.setFlight(flight);
+        itinerary.setHotel(hotel);
+        return itinerary;
+    }
+
+    /** The KNNPacing prototype's Oman activities, as seeded into activity_catalog. */
+    public static List<CatalogActivity> catalog() {
+        return List.of(
+                catalogActivity("Sultan Qaboos Grand Mosque", TravelInterest.HISTORY, "09:00", 120, 0, 3),
+                catalogActivity("Mutrah Corniche Walk", TravelInterest.BEACH, "10:00", 90, 0, 4),
+                catalogActivity("Nizwa Fort Visit", TravelInterest.HISTORY, "08:30", 180, 5, 5),
+                catalogActivity("Wadi Shab Hike", TravelInterest.NATURE, "07:00", 300, 10, 8),
+                catalogActivity("Al Mouj Marina Relax", TravelInterest.RELAXATION, "15:00", 120, 0, 6),
+                catalogActivity("Royal Opera House Tour", TravelInterest.ENTERTAINMENT, "11:00", 120, 15, 7),
+                catalogActivity("Beach at Bandar Khayran", TravelInterest.BEACH, "12:00", 180, 5, 7),
+                catalogActivity("Shopping at Mutrah Souq", TravelInterest.SHOPPING, "14:00", 120, 20, 5),
+                catalogActivity("Kayaking in Wadi Al Arbeieen", TravelInterest.NATURE, "08:00", 240, 25, 9),
+                catalogActivity("Cooking Omani Cuisine Class", TravelInterest.FOOD, "10:00", 180, 30, 6));
+    }
+
+    private static CatalogActivity catalogActivity(String name, TravelInterest interest, String start,
+                                                   int minutes, double cost, int score) {
+        return CatalogActivity.builder()
+                .destination("Muscat")
+                .name(name)
+                .interest(interest)
+                .startTime(LocalTime.parse(start))
+                .durationMinutes(minutes)
+                .costAmount(BigDecimal.valueOf(cost))
+                .score(score)
+                .build();
+    }
+}
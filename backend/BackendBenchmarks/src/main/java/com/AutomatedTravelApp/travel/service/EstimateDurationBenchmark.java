@@ -0,0 +1,32 @@
+package com.AutomatedTravelApp.travel.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItineraryService.estimateDurationMinutes, called once per AI activity. The
+ * malformed case measures the exception-driven fallback to 60 minutes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EstimateDurationBenchmark {
+
+    private String start = "09:00";
+    private String end = "11:30";
+    private String malformed = "9am";
+
+    @Benchmark
+    public int wellFormed() {
+        return ItineraryService.estimateDurationMinutes(start, end);
+    }
+
+    @Benchmark
+    public int malformed() {
+        return ItineraryService.estimateDurationMinutes(malformed, end);
+    }
+}
@@ -0,0 +1,42 @@
+package com.AutomatedTravelApp.travel.service;
+
+import com.AutomatedTravelApp.travel.benchmarks.Fixtures;
+import com.AutomatedTravelApp.travel.dto.GenerateItineraryResponse;
+import com.AutomatedTravelApp.travel.model.Activity;
+import com.AutomatedTravelApp.travel.model.ItineraryDay;
+import com.AutomatedTravelApp.travel.model.TravelStyle;
+import com.AutomatedTravelApp.travel.model.Trip;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** ItineraryMapper.fromTrip: runs on every GET /api/itineraries/{id} cache miss and every write. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItineraryMapperBenchmark {
+
+    @Param({"1", "7", "14", "30"})
+    int days;
+
+    private final ItineraryMapper mapper = new ItineraryMapper();
+    private Trip trip;
+    private List<ItineraryDay> itineraryDays;
+    private List<Activity> activities;
+
+    @Setup
+    public void setUp() {
+        trip = Fixtures.trip(days, TravelStyle.COMFORT);
+        itineraryDays = Fixtures.days(trip, days);
+        activities = itineraryDays.stream().flatMap(d -> d.getActivities().stream()).toList();
+    }
+
+    @Benchmark
+    public GenerateItineraryResponse fromTrip() {
+        return mapper.fromTrip(trip, itineraryDays, activities);
+    }
+}
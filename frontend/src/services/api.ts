@@ -39,12 +39,14 @@ export type ItineraryActivityDto = {
     rating?: number;
     durationMinutes?: number;
     dayPlanned?: number;
+    id?: number;
 };
 
 export type ItineraryDayDto = {
     dayNumber: number;
     restDay?: boolean;
     notes?: string;
+    id?: number;
 };
 
 export type ItineraryResponseDto = {
@@ -72,4 +74,62 @@ export async function getItinerary(id: string | number): Promise<ItineraryRespon
     return data;
 }
 
+// Incremental edits (mirrors ItineraryDelta.java): only the orders that changed come back.
+export type ItineraryDeltaDto = {
+    itineraryId: number;
+    message?: string;
+    activityId?: number;
+    dayId?: number;
+    days?: { dayId: number; dayNumber: number; activityIds: number[] }[];
+    dayOrder?: number[];
+    endDate?: string;
+};
+
+export type ActivityInput = {
+    name: string;
+    location?: string;
+    price?: number;
+    currency?: string;
+    startTime?: string;
+    durationMinutes?: number;
+    notes?: string;
+    position?: number;
+};
+
+export async function addActivity(id: number, dayNumber: number, activity: ActivityInput): Promise<ItineraryDeltaDto> {
+    const { data } = await api.post(`/api/itineraries/${id}/days/${dayNumber}/activities`, activity);
+    return data;
+}
+
+export async function moveActivity(id: number, activityId: number, dayNumber: number, position: number): Promise<ItineraryDeltaDto> {
+    const { data } = await api.patch(`/api/itineraries/${id}/activities/${activityId}/position`, { dayNumber, position });
+    return data;
+}
+
+export async function deleteActivity(id: number, activityId: number): Promise<ItineraryDeltaDto> {
+    const { data } = await api.delete(`/api/itineraries/${id}/activities/${activityId}`);
+    return data;
+}
+
+export async function addDay(id: number, dayNumber?: number): Promise<ItineraryDeltaDto> {
+    const { data } = await api.post(`/api/itineraries/${id}/days`, { dayNumber });
+    return data;
+}
+
+export async function moveDay(id: number, dayNumber: number, toDayNumber: number): Promise<ItineraryDeltaDto> {
+    const { data } = await api.patch(`/api/itineraries/${id}/days/${dayNumber}/position`, { dayNumber: toDayNumber });
+    return data;
+}
+
+export async function deleteDay(id: number, dayNumber: number): Promise<ItineraryDeltaDto> {
+    const { data } = await api.delete(`/api/itineraries/${id}/days/${dayNumber}`);
+    return data;
+}
+
+// Re-plans only the given days; returns the whole updated itinerary.
+export async function regenerateDays(id: number, dayNumbers: number[]): Promise<ItineraryResponseDto> {
+    const { data } = await api.post(`/api/itineraries/${id}/days/regenerate`, { dayNumbers });
+    return data;
+}
+
 export default api;
\ No newline at end of file